@@ -0,0 +1,102 @@
+package com.example.geofarer.benchmarks;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.PackedRings;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-polygon tests against one large country, with the plain JTS geometry as
+ * clicks used before {@code FeatureInfo.prepared()} and with the cached prepared form.
+ * Half the points fall anywhere in the country's bounding box, half near its border.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContainmentBenchmark {
+
+    private static final int POINTS = 1024;
+
+    /** Maximum offset from a border vertex, in degrees. */
+    private static final double BORDER_JITTER = 0.05;
+
+    @Param({"Canada", "Russia", "Indonesia"})
+    public String country;
+
+    @Param({"raw", "prepared"})
+    public String containment;
+
+    private final Point[] points = new Point[POINTS];
+    private Geometry geometry;
+    private PreparedGeometry prepared;
+
+    @Setup
+    public void setUp() {
+        MapService.FeatureInfo target = null;
+        for (MapService.FeatureInfo fi : new MapService().loadShapefileData()) {
+            if (fi.name.equals(country)) {
+                target = fi;
+            }
+        }
+        if (target == null) {
+            throw new IllegalStateException("No country named " + country);
+        }
+        geometry = target.geometry();
+        prepared = target.prepared();
+
+        GeometryFactory factory = new GeometryFactory();
+        Envelope env = target.envelope();
+        PackedRings rings = target.packed(0);
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            double lon;
+            double lat;
+            if (i % 2 == 0) {
+                lon = env.getMinX() + random.nextDouble() * env.getWidth();
+                lat = env.getMinY() + random.nextDouble() * env.getHeight();
+            } else {
+                int vertex = random.nextInt(rings.pointCount());
+                lon = rings.lon(vertex) + (random.nextDouble() * 2 - 1) * BORDER_JITTER;
+                lat = rings.lat(vertex) + (random.nextDouble() * 2 - 1) * BORDER_JITTER;
+            }
+            points[i] = factory.createPoint(new Coordinate(lon, lat));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void contains(Blackhole bh) {
+        if ("prepared".equals(containment)) {
+            for (Point point : points) {
+                bh.consume(prepared.contains(point));
+            }
+        } else {
+            for (Point point : points) {
+                bh.consume(geometry.contains(point));
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.geofarer.benchmarks;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.PackedRings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-country lookups as done by {@code GameController.handleMapClick}, over
+ * uniformly random coordinates and over coordinates jittered around country borders,
+ * where the lookup grid cannot answer and exact tests run.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LookupBenchmark {
+
+    private static final int POINTS = 4096;
+
+    /** Maximum offset from a border vertex, in degrees. */
+    private static final double BORDER_JITTER = 0.05;
+
+    @Param({"random", "border"})
+    public String points;
+
+    private final MapService mapService = new MapService();
+    private final double[] lons = new double[POINTS];
+    private final double[] lats = new double[POINTS];
+
+    @Setup
+    public void setUp() {
+        List<MapService.FeatureInfo> features = mapService.loadShapefileData();
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            if ("border".equals(points)) {
+                PackedRings rings = features.get(random.nextInt(features.size())).packed(0);
+                int vertex = random.nextInt(rings.pointCount());
+                lons[i] = rings.lon(vertex) + (random.nextDouble() * 2 - 1) * BORDER_JITTER;
+                lats[i] = rings.lat(vertex) + (random.nextDouble() * 2 - 1) * BORDER_JITTER;
+            } else {
+                lons[i] = random.nextDouble() * 360.0 - 180.0;
+                lats[i] = random.nextDouble() * 180.0 - 90.0;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void findCountryAt(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(mapService.findCountryAt(lons[i], lats[i]));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.geofarer.benchmarks;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.PackedRings;
+import com.example.geofarer.services.ShapefileReader;
+import com.example.geofarer.utils.Constants;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projects every country outline to screen space at a given level of detail,
+ * the per-resize work behind both overlay renderers in {@code GameView}.
+ * {@code projectAllBoxed} is the earlier path, which read JTS coordinates into a
+ * {@code List<Double>} per polygon, run over the same outlines: each level is simplified
+ * from the shapefile geometry exactly as {@code MapService} builds it. The profile runs
+ * with {@code -prof gc}, so {@code gc.alloc.rate.norm} shows the bytes allocated per
+ * projection by each.
+ * <p>
+ * Only the Canvas renderer draws straight from the projected buffer. The Polyline
+ * renderer still boxes every point into a {@code Double[]} for {@code Polyline.getPoints()},
+ * although only when a level of detail is first built, not on resize.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    public int lodLevel;
+
+    @Param({"1920"})
+    public double width;
+
+    private PackedRings[] rings;
+    private Geometry[] geometries;
+    private double[] buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<MapService.FeatureInfo> features = new MapService().loadShapefileData();
+        rings = new PackedRings[features.size()];
+        int maxPoints = 0;
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = features.get(i).packed(lodLevel);
+            maxPoints = Math.max(maxPoints, rings[i].pointCount());
+        }
+        buffer = new double[maxPoints * 2];
+
+        // The boxed path gets the same outlines as JTS geometry, simplified from the shapefile
+        // like the render levels rather than from the already simplified level 0
+        ShapefileReader reader = ShapefileReader.open(new File(Constants.SHAPEFILE_PATH));
+        List<Geometry> simplified = new ArrayList<>();
+        for (int record = 0; record < reader.getRecordCount(); record++) {
+            Geometry original = reader.readGeometry(record);
+            if (original != null) {
+                simplified.add(MapService.simplifyForLevel(original, lodLevel));
+            }
+        }
+        geometries = simplified.toArray(new Geometry[0]);
+
+        if (geometries.length != rings.length) {
+            throw new IllegalStateException(geometries.length + " shapefile records but " + rings.length + " countries");
+        }
+        for (int i = 0; i < rings.length; i++) {
+            if (exteriorPoints(geometries[i]) != rings[i].pointCount()) {
+                throw new IllegalStateException("Country " + i + " has " + exteriorPoints(geometries[i])
+                        + " boxed points but " + rings[i].pointCount() + " packed points");
+            }
+        }
+    }
+
+    private static int exteriorPoints(Geometry geometry) {
+        int points = 0;
+        for (int p = 0; p < geometry.getNumGeometries(); p++) {
+            if (geometry.getGeometryN(p) instanceof Polygon polygon) {
+                points += polygon.getExteriorRing().getNumPoints();
+            }
+        }
+        return points;
+    }
+
+    @Benchmark
+    public double projectAll() {
+        double height = width / 2;
+        double checksum = 0;
+        for (PackedRings packed : rings) {
+            packed.project(width, height, buffer);
+            checksum += buffer[0];
+        }
+        return checksum;
+    }
+
+    /** Baseline: the boxed projection {@code GameView.polylineForPolygon} used before packed rings. */
+    @Benchmark
+    public double projectAllBoxed() {
+        double height = width / 2;
+        double checksum = 0;
+        for (Geometry geometry : geometries) {
+            for (int p = 0; p < geometry.getNumGeometries(); p++) {
+                if (!(geometry.getGeometryN(p) instanceof Polygon polygon)) continue;
+                Coordinate[] coords = polygon.getExteriorRing().getCoordinates();
+                List<Double> pts = new ArrayList<>(coords.length * 2);
+                for (Coordinate c : coords) {
+                    pts.add(((c.x + 180.0) / 360.0) * width);
+                    pts.add(((90.0 - c.y) / 180.0) * height);
+                }
+                checksum += pts.get(0);
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.geofarer.benchmarks;
+
+import com.example.geofarer.services.RasterFiles;
+import com.example.geofarer.utils.Constants;
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageIO fallback decode of the world raster, as {@code MapService} runs it when the
+ * JavaFX decoder rejects the TIFF:
+ * <ul>
+ *   <li>{@code SwingFXUtils}: the earlier path, a full BufferedImage converted to a JavaFX image.</li>
+ *   <li>{@code PixelBuffer}: banded decode into a direct-buffer {@code PixelBuffer}.</li>
+ * </ul>
+ * Each decode runs in a fresh heap state and the peak heap it reaches is printed after the
+ * trial; with {@code -prof gc}, {@code gc.alloc.rate.norm} gives the heap bytes allocated per decode.
+ * JavaFX images need the toolkit, which the fork starts on Monocle's headless platform
+ * with software rendering, so no display is needed.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g",
+        "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RasterDecodeBenchmark {
+
+    @Param({"SwingFXUtils", "PixelBuffer"})
+    public String path;
+
+    @Param({"1", "4"})
+    public int subsampling;
+
+    private long peakHeap;
+
+    @Setup(Level.Trial)
+    public void startToolkit() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException alreadyStarted) {
+            // Started by an earlier trial in this fork
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void samplePeakHeap() {
+        // Sum of per-pool peaks, so an upper bound on the heap in use at any one time
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeap = Math.max(peakHeap, peak);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportPeakHeap() {
+        System.out.printf(Locale.ROOT, "%nPeak heap during %s decode at 1/%d: %d MB%n",
+                path, subsampling, peakHeap / (1024 * 1024));
+    }
+
+    @Benchmark
+    public Image decode() throws IOException {
+        ImageReader reader = RasterFiles.openReader(new File(Constants.RASTER_PATH));
+        try {
+            if ("PixelBuffer".equals(path)) {
+                return RasterFiles.readIntoPixelBuffer(reader, subsampling, Constants.RASTER_DECODE_BAND_ROWS);
+            }
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return SwingFXUtils.toFXImage(reader.read(0, param), null);
+        } finally {
+            RasterFiles.close(reader);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.geofarer.benchmarks;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.utils.CacheFiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link MapService#loadShapefileData()} against the bundled Natural Earth countries.
+ * <ul>
+ *   <li>{@code cold} with {@code source}: empty cache directory, so the shapefile is parsed,
+ *       simplified and the snapshot and lookup grid are rebuilt.</li>
+ *   <li>{@code cold} with {@code snapshot}: in-memory data dropped, derived files kept on disk.</li>
+ *   <li>{@code warm}: everything already in memory.</li>
+ * </ul>
+ * The benchmark points the cache directory at a temporary folder so the user's cache is never touched.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ShapefileLoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ColdState {
+        @Param({"source", "snapshot"})
+        public String cache;
+
+        private Path cacheDir;
+        final MapService mapService = new MapService();
+
+        @Setup(Level.Trial)
+        public void createCacheDir() throws IOException {
+            cacheDir = Files.createTempDirectory("geofarer-bench");
+            System.setProperty(CacheFiles.CACHE_DIR_PROPERTY, cacheDir.toString());
+            // Leave the snapshot and grid on disk for the snapshot runs
+            mapService.loadShapefileData();
+        }
+
+        @Setup(Level.Invocation)
+        public void reset() throws IOException {
+            MapService.clearShapefileCache();
+            if ("source".equals(cache)) {
+                clearDirectory(cacheDir);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteCacheDir() throws IOException {
+            MapService.clearShapefileCache();
+            clearDirectory(cacheDir);
+            Files.deleteIfExists(cacheDir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WarmState {
+        private Path cacheDir;
+        final MapService mapService = new MapService();
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            cacheDir = Files.createTempDirectory("geofarer-bench");
+            System.setProperty(CacheFiles.CACHE_DIR_PROPERTY, cacheDir.toString());
+            MapService.clearShapefileCache();
+            mapService.loadShapefileData();
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteCacheDir() throws IOException {
+            MapService.clearShapefileCache();
+            clearDirectory(cacheDir);
+            Files.deleteIfExists(cacheDir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public List<MapService.FeatureInfo> cold(ColdState state) {
+        return state.mapService.loadShapefileData();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<MapService.FeatureInfo> warm(WarmState state) {
+        return state.mapService.loadShapefileData();
+    }
+
+    private static void clearDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (!path.equals(dir)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.geofarer;
 
+import com.example.geofarer.diagnostics.FlightRecording;
+import com.example.geofarer.services.StatsStore;
 import com.example.geofarer.utils.SceneManager;
 import com.example.geofarer.views.LandingPageView;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
+import jdk.jfr.Recording;
 
 public class GeofarerApp extends Application {
 
@@ -92,7 +95,21 @@ public class GeofarerApp extends Application {
         SceneManager.preloadResources();
     }
 
+    @Override
+    public void stop() {
+        // Saves the stats aggregates so the next launch does not replay the whole answer log
+        StatsStore.closeShared();
+    }
+
     public static void main(String[] args) {
-        launch(args);
+        // --jfr[=file] records startup and load phases with Java Flight Recorder
+        Recording recording = FlightRecording.startIfRequested(args);
+        try {
+            launch(args);
+        } finally {
+            if (recording != null) {
+                FlightRecording.stop(recording);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.example.geofarer.batch;
+
+import com.example.geofarer.services.MapService;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless reverse geocoder: tags lon/lat points with the country containing them,
+ * using the same country data and lookup as map clicks, without starting JavaFX.
+ * <p>
+ * Input is read in chunks; each chunk is resolved on a worker thread and chunks are
+ * written back in input order, with a bounded number in flight so memory stays flat
+ * for arbitrarily large files.
+ * <ul>
+ *   <li>CSV ({@code .csv}): lon/lat columns are taken from a header naming them
+ *       (lon, lng, longitude / lat, latitude), otherwise the first two columns.
+ *       Each line is written back with a {@code country} column appended, so output lines
+ *       match input lines one to one; blank or unparsable lines get an empty country.</li>
+ *   <li>Binary (any other extension): big-endian double pairs {@code lon, lat}.
+ *       Output is one big-endian int per point holding the country index (-1 for none),
+ *       with the index-to-name table written next to it as {@code <output>.countries.txt}.</li>
+ * </ul>
+ * Usage: {@code java -cp <classpath> com.example.geofarer.batch.BatchGeocoder <input> <output>
+ * [--chunk N] [--threads N]}. This is its own entry point rather than a flag on
+ * {@code GeofarerApp}: launching an {@code Application} starts the JavaFX toolkit, which
+ * fails on machines without a display.
+ */
+public class BatchGeocoder {
+    private static final int DEFAULT_CHUNK = 65536;
+
+    private final MapService mapService = new MapService();
+    private final int chunkSize;
+    private final int threads;
+    private List<MapService.FeatureInfo> features;
+
+    public BatchGeocoder(int chunkSize, int threads) {
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        int chunk = DEFAULT_CHUNK;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--chunk" -> chunk = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> positional.add(args[i]);
+            }
+        }
+        if (positional.size() != 2) {
+            System.err.println("Usage: BatchGeocoder <input.csv|input.bin> <output> [--chunk N] [--threads N]");
+            System.exit(2);
+        }
+
+        File input = new File(positional.get(0));
+        File output = new File(positional.get(1));
+        new BatchGeocoder(chunk, threads).run(input, output);
+    }
+
+    public void run(File input, File output) throws IOException {
+        long loadStart = System.nanoTime();
+        features = mapService.loadShapefileData();
+        if (features.isEmpty()) {
+            throw new IOException("No country data loaded");
+        }
+        System.out.println("Loaded " + features.size() + " countries in " +
+                (System.nanoTime() - loadStart) / 1_000_000 + " ms");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long points;
+        try {
+            if (input.getName().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                points = geocodeCsv(input, output, pool);
+            } else {
+                points = geocodeBinary(input, output, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Geocoded %d points in %.2f s (%.0f points/s, %d threads, chunks of %d)%n",
+                points, seconds, points / Math.max(seconds, 1e-9), threads, chunkSize);
+    }
+
+    /** Country index for each point, -1 where no country contains it. */
+    private int[] resolve(double[] lons, double[] lats, int count) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            MapService.FeatureInfo fi = Double.isNaN(lons[i]) || Double.isNaN(lats[i])
+                    ? null : mapService.findCountryAt(lons[i], lats[i]);
+            result[i] = fi != null ? fi.index : -1;
+        }
+        return result;
+    }
+
+    private long geocodeBinary(File input, File output, ExecutorService pool) throws IOException {
+        long points = 0;
+        try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output), 1 << 16))) {
+            long total = channel.size() / 16;
+            ArrayDeque<CompletableFuture<int[]>> inFlight = new ArrayDeque<>();
+
+            for (long first = 0; first < total; first += chunkSize) {
+                int count = (int) Math.min(chunkSize, total - first);
+                DoubleBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, first * 16, (long) count * 16)
+                        .order(ByteOrder.BIG_ENDIAN).asDoubleBuffer();
+                inFlight.add(CompletableFuture.supplyAsync(() -> {
+                    double[] lons = new double[count];
+                    double[] lats = new double[count];
+                    for (int i = 0; i < count; i++) {
+                        lons[i] = buffer.get(i * 2);
+                        lats[i] = buffer.get(i * 2 + 1);
+                    }
+                    return resolve(lons, lats, count);
+                }, pool));
+
+                if (inFlight.size() >= threads * 2) {
+                    points += writeIndices(inFlight.poll().join(), out);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                points += writeIndices(inFlight.poll().join(), out);
+            }
+        }
+
+        try (PrintWriter names = new PrintWriter(Files.newBufferedWriter(
+                new File(output.getPath() + ".countries.txt").toPath(), StandardCharsets.UTF_8))) {
+            for (MapService.FeatureInfo fi : features) {
+                names.println(fi.index + "\t" + fi.name);
+            }
+        }
+        return points;
+    }
+
+    private static int writeIndices(int[] indices, DataOutputStream out) throws IOException {
+        for (int index : indices) {
+            out.writeInt(index);
+        }
+        return indices.length;
+    }
+
+    private long geocodeCsv(File input, File output, ExecutorService pool) throws IOException {
+        long points = 0;
+        try (BufferedReader in = Files.newBufferedReader(input.toPath(), StandardCharsets.UTF_8);
+             BufferedWriter out = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            String line = in.readLine();
+            if (line == null) {
+                return 0;
+            }
+
+            int lonColumn = 0;
+            int latColumn = 1;
+            List<String> header = splitCsv(line);
+            if (!isNumber(field(header, 0)) || !isNumber(field(header, 1))) {
+                for (int c = 0; c < header.size(); c++) {
+                    String name = header.get(c).trim().toLowerCase(Locale.ROOT);
+                    if (name.equals("lon") || name.equals("lng") || name.equals("longitude")) lonColumn = c;
+                    if (name.equals("lat") || name.equals("latitude")) latColumn = c;
+                }
+                out.write(line);
+                out.write(",country");
+                out.newLine();
+                line = in.readLine();
+            }
+
+            ArrayDeque<CompletableFuture<String[]>> inFlight = new ArrayDeque<>();
+            while (line != null) {
+                List<String> lines = new ArrayList<>(chunkSize);
+                while (line != null && lines.size() < chunkSize) {
+                    lines.add(line);
+                    line = in.readLine();
+                }
+
+                int lonCol = lonColumn;
+                int latCol = latColumn;
+                inFlight.add(CompletableFuture.supplyAsync(() -> geocodeCsvChunk(lines, lonCol, latCol), pool));
+                if (inFlight.size() >= threads * 2) {
+                    points += writeLines(inFlight.poll().join(), out);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                points += writeLines(inFlight.poll().join(), out);
+            }
+        }
+        return points;
+    }
+
+    private String[] geocodeCsvChunk(List<String> lines, int lonColumn, int latColumn) {
+        int count = lines.size();
+        double[] lons = new double[count];
+        double[] lats = new double[count];
+        for (int i = 0; i < count; i++) {
+            List<String> fields = splitCsv(lines.get(i));
+            lons[i] = parseOrNaN(field(fields, lonColumn));
+            lats[i] = parseOrNaN(field(fields, latColumn));
+        }
+
+        int[] indices = resolve(lons, lats, count);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            String name = indices[i] >= 0 ? features.get(indices[i]).name : "";
+            result[i] = lines.get(i) + "," + quoteCsv(name);
+        }
+        return result;
+    }
+
+    private static int writeLines(String[] lines, BufferedWriter out) throws IOException {
+        for (String line : lines) {
+            out.write(line);
+            out.newLine();
+        }
+        return lines.length;
+    }
+
+    /** Splits a CSV line into fields, honouring double-quoted fields with embedded commas. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static boolean isNumber(String value) {
+        return !Double.isNaN(parseOrNaN(value));
+    }
+
+    private static double parseOrNaN(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String quoteCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,26 +1,32 @@
 package com.example.geofarer.controllers;
 
 import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.ScoringService;
+import com.example.geofarer.services.StatsStore;
 import com.example.geofarer.utils.SceneManager;
 import com.example.geofarer.views.LandingPageView;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
-import org.geotools.geometry.jts.JTSFactoryFinder;
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Random;
 
 public class GameController {
+    private final MapService mapService = new MapService();
+    private final ScoringService scoringService = new ScoringService();
+    private MapService.FeatureInfo hovered;
+    private MapService.FeatureInfo target;
+    private List<MapService.FeatureInfo> countries = List.of();
+    private long targetSetAt;
+    private final Random random = new Random();
 
     public void goBackToLanding() {
         SceneManager.switchToScene(new LandingPageView());
     }
 
 
-    public void handleMapClick(MouseEvent event, double displayedW, double displayedH, 
-                              List<MapService.FeatureInfo> featureInfos, Label countryLabel) {
+    public void handleMapClick(MouseEvent event, double displayedW, double displayedH, Label resultLabel) {
         //The inner pane is designed to be seperate and therefore we get the width and height
         //Get the Coords from click
         double clickX = event.getX();
@@ -30,22 +36,90 @@ public class GameController {
         double lon = (clickX / displayedW) * 360 - 180.0; //Formula to convert to longitude
         double lat = 90.0 - (clickY / displayedH) * 180.0; //Formula for lat
 
-        //Using the Java Topology Suite (JTS) fund the country
-        GeometryFactory geomFactory = JTSFactoryFinder.getGeometryFactory();
-        Point clickedPoint = geomFactory.createPoint(new Coordinate(lon, lat));
+        //Now we have the point, let the spatial index find the country that contains it
+        String countryName = "Unknown";
+        MapService.FeatureInfo fi = mapService.findCountryAt(lon, lat);
+        if (fi != null) {
+            countryName = fi.name;
+        }
 
-        //Now we have the point lets finds the country that contains the clicked.
+        //Update the result label, with distance and points when there is a country to find
+        if (target != null) {
+            double km = scoringService.distanceKm(target, lon, lat);
+            int score = ScoringService.scoreForDistance(km);
+            resultLabel.setText(String.format("Clicked: %s - %.0f km from %s, %d points",
+                    countryName, km, target.name, score));
+            recordAnswer(fi, score);
+        } else {
+            resultLabel.setText("Clicked: " + countryName);
+        }
+    }
 
-        String countryName = "Unknown";
-        for (MapService.FeatureInfo fi: featureInfos) {
-            if (fi.geom.contains(clickedPoint)){
-                countryName = fi.name;
-                System.out.println(countryName);
-                break; // Found the country, stop searching
-            }
+    public MapService.FeatureInfo getTarget() {
+        return target;
+    }
+
+    /**
+     * Picks a random country to find, different from the current one when there is a choice.
+     *
+     * @return the new target, or null if there are no countries
+     */
+    public MapService.FeatureInfo nextTarget(List<MapService.FeatureInfo> countries) {
+        this.countries = countries;
+        if (countries.isEmpty()) {
+            setTarget(null);
+            return null;
         }
+        MapService.FeatureInfo next;
+        do {
+            next = countries.get(random.nextInt(countries.size()));
+        } while (next == target && countries.size() > 1);
+        setTarget(next);
+        return next;
+    }
 
-        //Update the country label
-        countryLabel.setText("Clicked: " + countryName);
+    /** Sets the country the player has to find; clicks are then scored by distance to it. */
+    public void setTarget(MapService.FeatureInfo target) {
+        this.target = target;
+        this.targetSetAt = System.currentTimeMillis();
+        if (target != null) {
+            scoringService.prepareTarget(target);
+        }
+    }
+
+    private void recordAnswer(MapService.FeatureInfo clicked, int score) {
+        long now = System.currentTimeMillis();
+        try {
+            StatsStore.shared(countries).record(now, target.index, clicked != null ? clicked.index : -1,
+                    (int) Math.min(Integer.MAX_VALUE, now - targetSetAt), score);
+        } catch (IOException e) {
+            System.err.println("Could not record answer: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the country under the cursor, re-testing the last hovered country before
+     * doing a full lookup. The label is only updated when the country changes.
+     *
+     * @return the country under the cursor, or null over the sea
+     */
+    public MapService.FeatureInfo handleMapHover(MouseEvent event, double displayedW, double displayedH, Label countryLabel) {
+        double lon = (event.getX() / displayedW) * 360 - 180.0;
+        double lat = 90.0 - (event.getY() / displayedH) * 180.0;
+
+        MapService.FeatureInfo fi = mapService.findCountryAt(lon, lat, hovered);
+        if (fi != hovered) {
+            hovered = fi;
+            countryLabel.setText(fi != null ? fi.name : "");
+        }
+        return fi;
+    }
+
+    /** Forgets the hovered country, e.g. when the cursor leaves the map. */
+    public void clearHover(Label countryLabel) {
+        if (hovered != null) {
+            hovered = null;
+            countryLabel.setText("");
+        }
     }
 }
@@ -1,40 +1,29 @@
 package com.example.geofarer.controllers;
 
 
+import com.example.geofarer.diagnostics.SceneSwitchEvent;
 import com.example.geofarer.utils.SceneManager;
+import com.example.geofarer.views.ExploreView;
 import com.example.geofarer.views.GameView;
-import javafx.util.Duration;
-import javafx.animation.PauseTransition;
+import com.example.geofarer.views.StatsView;
 
 public class LandingPageController {
     public void startGame() {
         System.out.println("Play button clicked, initializing game view");
-        // Create game view with delayed initialization
-        GameView gameView = new GameView(true); // Use the constructor with the delay parameter
-        
+        // Recorded next to the swap SceneManager records itself, but lasting until the map is drawn
+        SceneSwitchEvent firstFrameEvent = new SceneSwitchEvent();
+        firstFrameEvent.root = GameView.class.getSimpleName();
+        firstFrameEvent.untilFirstFrame = true;
+        firstFrameEvent.begin();
+        GameView gameView = new GameView(true); // Map data loads once the scene is switched
+
         // Switch to the scene first (only call this once)
         System.out.println("Switching to game scene");
         SceneManager.switchToScene(gameView);
-        
-        // Wait for the scene to be properly laid out before initializing map
-        System.out.println("Setting up map initialization delay");
-        PauseTransition delay = new PauseTransition(Duration.millis(2000)); // Increased delay
-        delay.setOnFinished(e -> {
-            System.out.println("Initializing map");
-            // Force layout update before map initialization
-            gameView.applyCss();
-            gameView.autosize();
-            gameView.requestLayout();
-            
-            // Additional delay to ensure layout is complete
-            PauseTransition layoutDelay = new PauseTransition(Duration.millis(500));
-            layoutDelay.setOnFinished(event -> {
-                System.out.println("Layout complete, starting map initialization");
-                gameView.initializeMap();
-            });
-            layoutDelay.play();
-        });
-        delay.play();
+
+        // The view renders in the first layout pulse where data and bounds are both ready
+        gameView.initializeMap();
+        gameView.firstFrameFuture().thenRun(firstFrameEvent::commit);
     }
     public void showLogin() {
 
@@ -44,6 +33,10 @@ public class LandingPageController {
     }
 
     public void showStats(){
+        SceneManager.switchToScene(new StatsView());
+    }
 
+    public void showExplore(){
+        SceneManager.switchToScene(new ExploreView());
     }
 }
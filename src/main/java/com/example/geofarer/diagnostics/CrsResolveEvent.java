@@ -0,0 +1,14 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.CrsResolve")
+@Label("CRS Resolution")
+@Category({"Geofarer", "Startup"})
+public class CrsResolveEvent extends Event {
+    @Label("Coordinate Reference System")
+    public String crs;
+}
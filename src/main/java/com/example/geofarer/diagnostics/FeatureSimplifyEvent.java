@@ -0,0 +1,23 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.FeatureSimplify")
+@Label("Feature Simplification")
+@Category({"Geofarer", "Startup"})
+@Description("Simplifying one country and building its render levels")
+public class FeatureSimplifyEvent extends Event {
+    @Label("Country")
+    public String country;
+
+    @Label("Input Points")
+    public int inputPoints;
+
+    @Label("Output Points")
+    @Description("Points in the hit-testing geometry after simplification")
+    public int outputPoints;
+}
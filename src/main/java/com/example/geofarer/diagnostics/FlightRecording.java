@@ -0,0 +1,54 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.nio.file.Path;
+
+/**
+ * Starts a Java Flight Recorder recording when the app is launched with {@code --jfr}
+ * or {@code --jfr=<file>}, so startup phases can be profiled without external tooling.
+ */
+public class FlightRecording {
+    public static final String FLAG = "--jfr";
+    private static final String DEFAULT_FILE = "geofarer.jfr";
+
+    /** Starts a recording if requested on the command line, returning null otherwise. */
+    public static Recording startIfRequested(String[] args) {
+        String file = null;
+        for (String arg : args) {
+            if (arg.equals(FLAG)) {
+                file = DEFAULT_FILE;
+            } else if (arg.startsWith(FLAG + "=")) {
+                file = arg.substring(FLAG.length() + 1);
+            }
+        }
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("Geofarer");
+            recording.setDestination(Path.of(file));
+            recording.start();
+            System.out.println("Flight recording started, writing to " + Path.of(file).toAbsolutePath());
+            return recording;
+        } catch (Exception e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Stops the recording, which writes it to its destination. */
+    public static void stop(Recording recording) {
+        try {
+            recording.stop();
+            System.out.println("Flight recording written to " + recording.getDestination().toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Could not write flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+        }
+    }
+}
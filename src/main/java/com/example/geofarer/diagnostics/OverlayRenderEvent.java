@@ -0,0 +1,28 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.OverlayRender")
+@Label("First Overlay Render")
+@Category({"Geofarer", "UI"})
+@Description("The first renderOverlays call of a game view")
+public class OverlayRenderEvent extends Event {
+    @Label("Renderer")
+    public String renderer;
+
+    @Label("Width")
+    public double width;
+
+    @Label("Height")
+    public double height;
+
+    @Label("Level Of Detail")
+    public int lodLevel;
+
+    @Label("Parts Drawn")
+    public int parts;
+}
@@ -0,0 +1,29 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.RasterDecode")
+@Label("Raster Decode")
+@Category({"Geofarer", "Startup"})
+@Description("Decoding the world raster into a JavaFX image")
+public class RasterDecodeEvent extends Event {
+    @Label("Decode Path")
+    @Description("JavaFX Image, or the banded ImageIO fallback into a pixel buffer")
+    public String path;
+
+    @Label("Subsampling")
+    public int subsampling;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
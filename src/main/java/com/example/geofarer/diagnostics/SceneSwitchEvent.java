@@ -0,0 +1,22 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.SceneSwitch")
+@Label("Scene Switch")
+@Category({"Geofarer", "UI"})
+public class SceneSwitchEvent extends Event {
+    @Label("Root")
+    public String root;
+
+    @Label("First Scene")
+    public boolean firstScene;
+
+    @Label("Until First Frame")
+    @Description("Spans the menu click up to the first drawn map frame, rather than only the scene swap")
+    public boolean untilFirstFrame;
+}
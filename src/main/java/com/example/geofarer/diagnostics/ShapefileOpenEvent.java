@@ -0,0 +1,20 @@
+package com.example.geofarer.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.geofarer.ShapefileOpen")
+@Label("Shapefile Open")
+@Category({"Geofarer", "Startup"})
+@Description("Opening the countries shapefile before features are read")
+public class ShapefileOpenEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Reader")
+    @Description("Memory-mapped reader or GeoTools data store")
+    public String reader;
+}
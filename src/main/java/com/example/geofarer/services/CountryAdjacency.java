@@ -0,0 +1,193 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.CacheFiles;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Which countries share a border, stored in compressed sparse row form: the neighbours
+ * of country {@code i} are {@code neighbours[offsets[i]]} until {@code neighbours[offsets[i + 1]]},
+ * sorted ascending. Countries are identified by {@link MapService.FeatureInfo#index}.
+ * <p>
+ * Two countries are neighbours if their geometries intersect or come within the given
+ * tolerance, which absorbs small gaps introduced by simplification.
+ */
+public class CountryAdjacency {
+    private static final int MAGIC = 0x47454F41; // "GEOA"
+    private static final int VERSION = 1;
+
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    private CountryAdjacency(int[] offsets, int[] neighbours) {
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+    }
+
+    public int countryCount() {
+        return offsets.length - 1;
+    }
+
+    public int degree(int country) {
+        return offsets[country + 1] - offsets[country];
+    }
+
+    /** The {@code k}-th neighbour of a country, for {@code 0 <= k < degree(country)}. */
+    public int neighbour(int country, int k) {
+        return neighbours[offsets[country] + k];
+    }
+
+    /** Copy of a country's neighbour indices in ascending order. */
+    public int[] neighbours(int country) {
+        return Arrays.copyOfRange(neighbours, offsets[country], offsets[country + 1]);
+    }
+
+    public boolean areNeighbours(int a, int b) {
+        return Arrays.binarySearch(neighbours, offsets[a], offsets[a + 1], b) >= 0;
+    }
+
+    /** Number of distinct neighbouring pairs. */
+    public int edgeCount() {
+        return neighbours.length / 2;
+    }
+
+    /**
+     * Reads the cached graph if it matches the source data and tolerance, else runs the
+     * spatial join and caches the result. Slow on a cold cache, so callers should not
+     * block startup on it.
+     */
+    public static CountryAdjacency loadOrBuild(List<MapService.FeatureInfo> features, STRtree index,
+                                               double tolerance, long sourceHash) {
+        File cacheFile = null;
+        try {
+            cacheFile = CacheFiles.cacheFile("country-adjacency.bin");
+            CountryAdjacency cached = read(cacheFile, tolerance, sourceHash, features.size());
+            if (cached != null) {
+                System.out.println("Loaded country adjacency from cache: " + cacheFile);
+                return cached;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read country adjacency cache: " + e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        CountryAdjacency adjacency = build(features, index, tolerance);
+        System.out.println("Built country adjacency with " + adjacency.edgeCount() + " borders in " +
+                (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        if (cacheFile != null) {
+            try {
+                adjacency.write(cacheFile, tolerance, sourceHash);
+            } catch (IOException e) {
+                System.err.println("Could not write country adjacency cache: " + e.getMessage());
+            }
+        }
+        return adjacency;
+    }
+
+    /**
+     * Spatial join of every country against the envelope index, one task per country.
+     * Each pair is tested once, from its lower index.
+     */
+    public static CountryAdjacency build(List<MapService.FeatureInfo> features, STRtree index, double tolerance) {
+        int n = features.size();
+        int[][] higher = new int[n][];
+        IntStream.range(0, n).parallel().forEach(i -> higher[i] = higherNeighbours(features.get(i), index, tolerance));
+
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            degree[i] += higher[i].length;
+            for (int j : higher[i]) {
+                degree[j]++;
+            }
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + degree[i];
+        }
+
+        // Filling lower neighbours first, in index order, keeps every row sorted
+        int[] neighbours = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int j : higher[i]) {
+                neighbours[fill[j]++] = i;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j : higher[i]) {
+                neighbours[fill[i]++] = j;
+            }
+        }
+        return new CountryAdjacency(offsets, neighbours);
+    }
+
+    private static int[] higherNeighbours(MapService.FeatureInfo fi, STRtree index, double tolerance) {
+        Envelope search = new Envelope(fi.envelope());
+        search.expandBy(tolerance);
+
+        @SuppressWarnings("unchecked")
+        List<MapService.FeatureInfo> candidates = index.query(search);
+        int[] found = new int[candidates.size()];
+        int count = 0;
+        // Indexed boundary of this country, built only if some candidate does not intersect it
+        IndexedFacetDistance distance = null;
+        for (MapService.FeatureInfo other : candidates) {
+            if (other.index <= fi.index || other.envelope().distance(fi.envelope()) > tolerance) {
+                continue;
+            }
+            if (fi.prepared().intersects(other.geometry())) {
+                found[count++] = other.index;
+                continue;
+            }
+            if (distance == null) {
+                distance = new IndexedFacetDistance(fi.geometry());
+            }
+            if (distance.isWithinDistance(other.geometry(), tolerance)) {
+                found[count++] = other.index;
+            }
+        }
+        int[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void write(File file, double tolerance, long sourceHash) throws IOException {
+        CacheFiles.write(file, MAGIC, VERSION, sourceHash, out -> {
+            out.writeDouble(tolerance);
+            out.writeInt(countryCount());
+            out.writeInt(neighbours.length);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            for (int neighbour : neighbours) {
+                out.writeInt(neighbour);
+            }
+        });
+    }
+
+    private static CountryAdjacency read(File file, double tolerance, long sourceHash, int featureCount)
+            throws IOException {
+        MappedByteBuffer buffer = CacheFiles.map(file, MAGIC, VERSION, sourceHash);
+        if (buffer == null || buffer.remaining() < 16 || buffer.getDouble() != tolerance
+                || buffer.getInt() != featureCount) {
+            return null;
+        }
+        int edges = buffer.getInt();
+        if (buffer.remaining() != ((long) featureCount + 1 + edges) * 4) {
+            return null;
+        }
+        int[] offsets = new int[featureCount + 1];
+        int[] neighbours = new int[edges];
+        buffer.asIntBuffer().get(offsets).get(neighbours);
+        return new CountryAdjacency(offsets, neighbours);
+    }
+}
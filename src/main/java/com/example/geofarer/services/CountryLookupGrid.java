@@ -0,0 +1,221 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.CacheFiles;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Equirectangular raster of country indices covering the whole world.
+ * Each cell holds the index of the single country that fully covers it,
+ * {@link #NO_COUNTRY} if no country touches it, or {@link #AMBIGUOUS} if it
+ * straddles a border or coastline and needs an exact geometry test.
+ * <p>
+ * A country "covers" a cell when it contains the closed cell, which still lets the
+ * cell's edges run along the country's border. A point on such an edge is not inside
+ * the country by {@code contains}, so the grid only answers for points strictly inside
+ * a cell and reports points on or next to a cell edge as {@link #AMBIGUOUS}.
+ */
+public class CountryLookupGrid {
+    public static final short NO_COUNTRY = -1;
+    public static final short AMBIGUOUS = -2;
+
+    private static final int MAGIC = 0x47454F47; // "GEOG"
+    private static final int VERSION = 1;
+    private static final int BAND_ROWS = 32;
+    // Fraction of a cell around each edge left to the exact test; far above rounding error in cell bounds
+    private static final double EDGE_MARGIN = 1e-6;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final double resolution;
+    private final int width;
+    private final int height;
+    private final short[] cells;
+
+    private CountryLookupGrid(double resolution, int width, int height, short[] cells) {
+        this.resolution = resolution;
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+    }
+
+    /**
+     * Returns the cell value for a WGS84 coordinate. Points off the grid, and points on
+     * or within a rounding margin of a cell edge, are ambiguous.
+     */
+    public short lookup(double lon, double lat) {
+        double x = (lon + 180.0) / resolution;
+        double y = (90.0 - lat) / resolution;
+        int col = (int) Math.floor(x);
+        int row = (int) Math.floor(y);
+        if (col < 0 || col >= width || row < 0 || row >= height) {
+            return AMBIGUOUS;
+        }
+        if (onCellEdge(x - col) || onCellEdge(y - row)) {
+            return AMBIGUOUS;
+        }
+        return cells[row * width + col];
+    }
+
+    private static boolean onCellEdge(double fraction) {
+        return fraction < EDGE_MARGIN || fraction > 1.0 - EDGE_MARGIN;
+    }
+
+    /**
+     * Loads the grid from the cache directory if it was built from the same source
+     * data, otherwise builds it and writes it back for the next launch.
+     */
+    public static CountryLookupGrid loadOrBuild(List<MapService.FeatureInfo> features, STRtree index,
+                                                double resolution, long sourceHash) {
+        File cacheFile = null;
+        try {
+            cacheFile = CacheFiles.cacheFile("country-grid-" + Math.round(resolution * 1000) + ".bin");
+            CountryLookupGrid cached = read(cacheFile, resolution, sourceHash, features.size());
+            if (cached != null) {
+                System.out.println("Loaded country lookup grid from cache: " + cacheFile);
+                return cached;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read country lookup grid cache: " + e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        CountryLookupGrid grid = build(index, resolution);
+        System.out.println("Built " + grid.width + "x" + grid.height + " country lookup grid in " +
+                (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        if (cacheFile != null) {
+            try {
+                grid.write(cacheFile, sourceHash, features.size());
+            } catch (IOException e) {
+                System.err.println("Could not write country lookup grid cache: " + e.getMessage());
+            }
+        }
+        return grid;
+    }
+
+    /** Builds the grid in parallel, one horizontal band of rows per task. */
+    public static CountryLookupGrid build(STRtree index, double resolution) {
+        int width = (int) Math.ceil(360.0 / resolution);
+        int height = (int) Math.ceil(180.0 / resolution);
+        short[] cells = new short[width * height];
+        Arrays.fill(cells, NO_COUNTRY);
+
+        CountryLookupGrid grid = new CountryLookupGrid(resolution, width, height, cells);
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        IntStream.range(0, bands).parallel().forEach(band -> grid.fillBand(index, band));
+        return grid;
+    }
+
+    private void fillBand(STRtree index, int band) {
+        // Each band only writes its own rows, so bands can be filled concurrently
+        int rowStart = band * BAND_ROWS;
+        int rowEnd = Math.min(height, rowStart + BAND_ROWS) - 1;
+        Envelope bandEnv = cellEnvelope(0, width - 1, rowStart, rowEnd);
+
+        @SuppressWarnings("unchecked")
+        List<MapService.FeatureInfo> candidates = index.query(bandEnv);
+        candidates.sort(Comparator.comparingInt(fi -> fi.index));
+
+        for (MapService.FeatureInfo fi : candidates) {
+            Envelope env = fi.envelope();
+            int c0 = clamp((int) Math.floor((env.getMinX() + 180.0) / resolution), width);
+            int c1 = clamp((int) Math.floor((env.getMaxX() + 180.0) / resolution), width);
+            int r0 = Math.max(rowStart, clamp((int) Math.floor((90.0 - env.getMaxY()) / resolution), height));
+            int r1 = Math.min(rowEnd, clamp((int) Math.floor((90.0 - env.getMinY()) / resolution), height));
+            if (r0 <= r1) {
+                classify(fi, c0, c1, r0, r1);
+            }
+        }
+    }
+
+    /** Recursively splits a block of cells until it is fully inside, fully outside, or a single cell. */
+    private void classify(MapService.FeatureInfo fi, int c0, int c1, int r0, int r1) {
+        PreparedGeometry prepared = fi.prepared();
+        Geometry block = geometryFactory.toGeometry(cellEnvelope(c0, c1, r0, r1));
+        if (!prepared.intersects(block)) {
+            return;
+        }
+        if (prepared.contains(block)) {
+            fill(fi.index, c0, c1, r0, r1);
+            return;
+        }
+        if (c0 == c1 && r0 == r1) {
+            cells[r0 * width + c0] = AMBIGUOUS;
+            return;
+        }
+        if (c1 - c0 >= r1 - r0) {
+            int mid = (c0 + c1) >>> 1;
+            classify(fi, c0, mid, r0, r1);
+            classify(fi, mid + 1, c1, r0, r1);
+        } else {
+            int mid = (r0 + r1) >>> 1;
+            classify(fi, c0, c1, r0, mid);
+            classify(fi, c0, c1, mid + 1, r1);
+        }
+    }
+
+    private void fill(int countryIndex, int c0, int c1, int r0, int r1) {
+        short value = (short) countryIndex;
+        for (int row = r0; row <= r1; row++) {
+            int offset = row * width;
+            for (int col = c0; col <= c1; col++) {
+                short current = cells[offset + col];
+                if (current == NO_COUNTRY) {
+                    cells[offset + col] = value;
+                } else if (current != value) {
+                    // Overlapping countries are resolved by the exact test
+                    cells[offset + col] = AMBIGUOUS;
+                }
+            }
+        }
+    }
+
+    private Envelope cellEnvelope(int c0, int c1, int r0, int r1) {
+        return new Envelope(
+                -180.0 + c0 * resolution, -180.0 + (c1 + 1) * resolution,
+                90.0 - (r1 + 1) * resolution, 90.0 - r0 * resolution);
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    private void write(File file, long sourceHash, int featureCount) throws IOException {
+        CacheFiles.write(file, MAGIC, VERSION, sourceHash, out -> {
+            out.writeDouble(resolution);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(featureCount);
+            for (short cell : cells) {
+                out.writeShort(cell);
+            }
+        });
+    }
+
+    private static CountryLookupGrid read(File file, double resolution, long sourceHash, int featureCount)
+            throws IOException {
+        MappedByteBuffer buffer = CacheFiles.map(file, MAGIC, VERSION, sourceHash);
+        if (buffer == null || buffer.remaining() < 20 || buffer.getDouble() != resolution) {
+            return null;
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (buffer.getInt() != featureCount || buffer.remaining() != (long) width * height * 2) {
+            return null;
+        }
+        short[] cells = new short[width * height];
+        buffer.asShortBuffer().get(cells);
+        return new CountryLookupGrid(resolution, width, height, cells);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.CacheFiles;
+import com.example.geofarer.utils.Constants;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot of the processed country set, memory-mapped on later launches
+ * so only names and envelopes are read up front. Geometry and render levels of a country
+ * are decoded from the mapping the first time they are asked for.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ *   header   magic, version, key, lodCount, featureCount
+ *   entries  per feature: name, envelope, geometry WKB offset/length,
+ *            and per level: rings offset, ring count, point count
+ *   data     WKB blobs and packed rings, offsets relative to the start of this section
+ * </pre>
+ */
+public class GeometrySnapshot {
+    private static final int MAGIC = 0x47454F53; // "GEOS"
+    private static final int VERSION = 1;
+    private static final String FILE_NAME = "countries.snapshot";
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final MappedByteBuffer buffer;
+    private final int[] geomOffsets;
+    private final int[] geomLengths;
+    private final int[][] ringOffsets;
+    private final int[][] ringCounts;
+    private final int[][] pointCounts;
+    private int dataStart;
+
+    private GeometrySnapshot(MappedByteBuffer buffer, int featureCount, int lodCount) {
+        this.buffer = buffer;
+        this.geomOffsets = new int[featureCount];
+        this.geomLengths = new int[featureCount];
+        this.ringOffsets = new int[featureCount][lodCount];
+        this.ringCounts = new int[featureCount][lodCount];
+        this.pointCounts = new int[featureCount][lodCount];
+    }
+
+    /**
+     * Opens the cached snapshot if it was written from the same source files.
+     *
+     * @return lazily decoded features in their original order, or null if there is no usable snapshot
+     */
+    public static List<MapService.FeatureInfo> load(long sourceHash) {
+        try {
+            File file = CacheFiles.cacheFile(FILE_NAME);
+            if (!file.isFile()) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = CacheFiles.map(file, MAGIC, VERSION, cacheKey(sourceHash));
+            if (buffer == null || buffer.remaining() < 8) {
+                System.out.println("Geometry snapshot is stale, reloading shapefile");
+                return null;
+            }
+
+            int lodCount = buffer.getInt();
+            int featureCount = buffer.getInt();
+            GeometrySnapshot snapshot = new GeometrySnapshot(buffer, featureCount, lodCount);
+
+            List<MapService.FeatureInfo> features = new ArrayList<>(featureCount);
+            for (int i = 0; i < featureCount; i++) {
+                byte[] nameBytes = new byte[buffer.getInt()];
+                buffer.get(nameBytes);
+                String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+                double minX = buffer.getDouble();
+                double maxX = buffer.getDouble();
+                double minY = buffer.getDouble();
+                double maxY = buffer.getDouble();
+
+                snapshot.geomOffsets[i] = buffer.getInt();
+                snapshot.geomLengths[i] = buffer.getInt();
+                for (int level = 0; level < lodCount; level++) {
+                    snapshot.ringOffsets[i][level] = buffer.getInt();
+                    snapshot.ringCounts[i][level] = buffer.getInt();
+                    snapshot.pointCounts[i][level] = buffer.getInt();
+                }
+
+                features.add(new MapService.FeatureInfo(name, i, new Envelope(minX, maxX, minY, maxY),
+                        snapshot, lodCount));
+            }
+            snapshot.dataStart = buffer.position();
+            return features;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not read geometry snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Writes the processed features so the next launch can skip the shapefile. */
+    public static void write(List<MapService.FeatureInfo> features, long sourceHash) {
+        try {
+            int lodCount = features.isEmpty() ? 0 : features.get(0).lodCount();
+            int[] geomOffsets = new int[features.size()];
+            int[] geomLengths = new int[features.size()];
+            int[][] ringOffsets = new int[features.size()][lodCount];
+
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            DataOutputStream dataOut = new DataOutputStream(data);
+            WKBWriter wkbWriter = new WKBWriter();
+            for (int i = 0; i < features.size(); i++) {
+                MapService.FeatureInfo fi = features.get(i);
+                byte[] wkb = wkbWriter.write(fi.geometry());
+                geomOffsets[i] = dataOut.size();
+                geomLengths[i] = wkb.length;
+                dataOut.write(wkb);
+                for (int level = 0; level < lodCount; level++) {
+                    ringOffsets[i][level] = dataOut.size();
+                    fi.packed(level).writeTo(dataOut);
+                }
+            }
+
+            File file = CacheFiles.cacheFile(FILE_NAME);
+            CacheFiles.write(file, MAGIC, VERSION, cacheKey(sourceHash), out -> {
+                out.writeInt(lodCount);
+                out.writeInt(features.size());
+
+                for (int i = 0; i < features.size(); i++) {
+                    MapService.FeatureInfo fi = features.get(i);
+                    byte[] nameBytes = fi.name.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(nameBytes.length);
+                    out.write(nameBytes);
+
+                    Envelope env = fi.envelope();
+                    out.writeDouble(env.getMinX());
+                    out.writeDouble(env.getMaxX());
+                    out.writeDouble(env.getMinY());
+                    out.writeDouble(env.getMaxY());
+
+                    out.writeInt(geomOffsets[i]);
+                    out.writeInt(geomLengths[i]);
+                    for (int level = 0; level < lodCount; level++) {
+                        PackedRings rings = fi.packed(level);
+                        out.writeInt(ringOffsets[i][level]);
+                        out.writeInt(rings.ringCount());
+                        out.writeInt(rings.pointCount());
+                    }
+                }
+                data.writeTo(out);
+            });
+            System.out.println("Wrote geometry snapshot: " + file);
+        } catch (IOException e) {
+            System.err.println("Could not write geometry snapshot: " + e.getMessage());
+        }
+    }
+
+    Geometry readGeometry(int feature) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(dataStart + geomOffsets[feature]);
+        byte[] wkb = new byte[geomLengths[feature]];
+        view.get(wkb);
+        try {
+            // WKBReader is not thread-safe, so each decode gets its own
+            return new WKBReader(geometryFactory).read(wkb);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Corrupt geometry snapshot entry " + feature, e);
+        }
+    }
+
+    PackedRings readRings(int feature, int level) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(dataStart + ringOffsets[feature][level]);
+
+        int[] offsets = new int[ringCounts[feature][level] + 1];
+        view.asIntBuffer().get(offsets);
+        view.position(view.position() + offsets.length * Integer.BYTES);
+
+        double[] coords = new double[pointCounts[feature][level] * 2];
+        view.asDoubleBuffer().get(coords);
+        return new PackedRings(coords, offsets);
+    }
+
+    private static long cacheKey(long sourceHash) {
+        // Processing settings change the derived data as much as the source files do
+        return sourceHash * 31 + Arrays.hashCode(Constants.LOD_TOLERANCES);
+    }
+}
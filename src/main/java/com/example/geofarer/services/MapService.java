@@ -1,44 +1,187 @@
 package com.example.geofarer.services;
 
+import com.example.geofarer.diagnostics.CrsResolveEvent;
+import com.example.geofarer.diagnostics.FeatureSimplifyEvent;
+import com.example.geofarer.diagnostics.RasterDecodeEvent;
+import com.example.geofarer.diagnostics.ShapefileOpenEvent;
+import com.example.geofarer.utils.CacheFiles;
 import com.example.geofarer.utils.Constants;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
-import javafx.scene.shape.Polyline;
 import org.geotools.data.FileDataStore;
 import org.geotools.data.FileDataStoreFinder;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.simple.SimpleFeatureSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
 import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import org.opengis.feature.simple.SimpleFeature;
 import org.geotools.referencing.CRS;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import javax.imageio.ImageReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class MapService {
-    private static Image cachedRasterImage = null;
-    private static List<FeatureInfo> cachedFeatures = null;
+    // Caches are written by loader threads and read from the FX thread, hence volatile
+    private static volatile Image cachedRasterImage = null;
+    private static volatile List<FeatureInfo> cachedFeatures = null;
+    private static volatile STRtree cachedIndex = null;
+    private static volatile CountryLookupGrid cachedGrid = null;
+    private static volatile long cachedSourceHash = 0;
+    private static volatile TilePyramid cachedTilePyramid = null;
+    private static volatile int[] cachedRasterSourceSize = null;
 
-    public static class FeatureInfo {
-        public final Geometry geom;
+    // Size-specific raster decodes keyed by subsampling factor, least recently used first
+    private static final LinkedHashMap<Integer, Image> sizedRasterCache = new LinkedHashMap<>(8, 0.75f, true);
+    private static long sizedRasterBytes = 0;
+
+    // Single-flight loads: concurrent callers share the load already in progress
+    private static final Map<Integer, CompletableFuture<Image>> rasterLoads = new HashMap<>();
+    private static CompletableFuture<List<FeatureInfo>> shapefileLoad = null;
+    private static CompletableFuture<CountryAdjacency> adjacencyLoad = null;
+    private static final Object RASTER_LOCK = new Object();
+    private static final ExecutorService LOADER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "map-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final String RASTER_PATH_JAVAFX = "JavaFX Image";
+    private static final String RASTER_PATH_PIXEL_BUFFER = "ImageIO/PixelBuffer";
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    /**
+     * One country, shared read-only by every view and thread. Geometry and render levels
+     * may be decoded lazily, but only once and safely. Views keep their own render state
+     * (nodes, styles) keyed by the feature rather than on it.
+     */
+    public static final class FeatureInfo {
         public final String name;
-        public final List<Polyline> shapes = new ArrayList<>();
+        public final int index;
+        private final Envelope envelope;
+        private final GeometrySnapshot snapshot;
+        private final AtomicReferenceArray<PackedRings> packedLods;
+        private volatile Geometry geom;
+        private volatile PreparedGeometry prepared;
 
-        public FeatureInfo(Geometry geom, String name) {
+        /**
+         * Feature whose geometry and render levels are already in memory.
+         *
+         * @param lods render geometries from finest to coarsest; lods[0] should be {@code geom}
+         */
+        public FeatureInfo(Geometry geom, String name, int index, Geometry[] lods) {
+            this.name = name;
+            this.index = index;
+            this.envelope = geom.getEnvelopeInternal();
+            this.snapshot = null;
             this.geom = geom;
+            this.packedLods = new AtomicReferenceArray<>(lods.length);
+            for (int level = 0; level < lods.length; level++) {
+                packedLods.set(level, PackedRings.of(lods[level]));
+            }
+        }
+
+        /** Feature backed by a snapshot; geometry and render levels are decoded on first use. */
+        FeatureInfo(String name, int index, Envelope envelope, GeometrySnapshot snapshot, int lodCount) {
             this.name = name;
+            this.index = index;
+            this.envelope = envelope;
+            this.snapshot = snapshot;
+            this.packedLods = new AtomicReferenceArray<>(lodCount);
+        }
+
+        /** Bounding box of the geometry, available without decoding it. Do not modify. */
+        public Envelope envelope() {
+            return envelope;
+        }
+
+        /** Geometry used for hit testing. */
+        public Geometry geometry() {
+            Geometry g = geom;
+            if (g == null) {
+                synchronized (this) {
+                    g = geom;
+                    if (g == null) {
+                        g = snapshot.readGeometry(index);
+                        geom = g;
+                    }
+                }
+            }
+            return g;
+        }
+
+        public int lodCount() {
+            return packedLods.length();
+        }
+
+        /**
+         * Exterior rings of a render level of detail, clamped to the coarsest level available.
+         * Called for every country on each render, so it never takes the lock that guards
+         * geometry decoding and preparation: racing first reads decode the same rings and
+         * the first one stored wins.
+         */
+        public PackedRings packed(int level) {
+            int clamped = Math.min(Math.max(level, 0), packedLods.length() - 1);
+            PackedRings rings = packedLods.get(clamped);
+            if (rings == null) {
+                rings = snapshot.readRings(index, clamped);
+                if (!packedLods.compareAndSet(clamped, null, rings)) {
+                    rings = packedLods.get(clamped);
+                }
+            }
+            return rings;
+        }
+
+        /**
+         * Prepared form of {@link #geometry()}, built on first use and shared afterwards.
+         * Use this for every containment/intersection test so segment indexes are
+         * only built once per country.
+         */
+        public PreparedGeometry prepared() {
+            PreparedGeometry p = prepared;
+            if (p == null) {
+                synchronized (this) {
+                    p = prepared;
+                    if (p == null) {
+                        p = PreparedGeometryFactory.prepare(geometry());
+                        prepared = p;
+                    }
+                }
+            }
+            return p;
         }
     }
 
     public Image loadRasterImage() {
+        synchronized (RASTER_LOCK) {
+            return loadFullRaster();
+        }
+    }
+
+    private Image loadFullRaster() {
         if (cachedRasterImage != null) {
             return cachedRasterImage;
         }
@@ -46,32 +189,38 @@ public class MapService {
         Image raster = null;
 
         // Try JavaFX Image first
+        RasterDecodeEvent fxEvent = beginRasterDecode(RASTER_PATH_JAVAFX, 1);
         try (InputStream is = new FileInputStream(Constants.RASTER_PATH)) {
             raster = new Image(is);
             if (!raster.isError() && raster.getWidth() > 0 && raster.getHeight() > 0) {
                 System.out.println("JavaFX Image load successful: " +
                         raster.getWidth() + "x" + raster.getHeight());
+                commitRasterDecode(fxEvent, raster);
                 cachedRasterImage = raster;
                 return raster;
             }
         } catch (Exception e) {
             System.err.println("JavaFX Image load failed: " + e.getMessage());
         }
+        commitRasterDecode(fxEvent, null);
 
-        // Fallback to ImageIO
+        // Fallback to ImageIO, decoded in bands straight into a direct pixel buffer
         if (raster == null || raster.isError() || raster.getWidth() <= 0 || raster.getHeight() <= 0) {
+            RasterDecodeEvent imageIoEvent = beginRasterDecode(RASTER_PATH_PIXEL_BUFFER, 1);
             try {
-                BufferedImage bi = ImageIO.read(new File(Constants.RASTER_PATH));
-                if (bi != null) {
-                    raster = SwingFXUtils.toFXImage(bi, null);
-                    System.out.println("ImageIO load successful: " +
-                            bi.getWidth() + "x" + bi.getHeight());
-                    cachedRasterImage = raster;
-                    return raster;
-                } else {
-                    throw new RuntimeException("ImageIO returned null for raster file.");
+                ImageReader reader = RasterFiles.openReader(new File(Constants.RASTER_PATH));
+                try {
+                    raster = RasterFiles.readIntoPixelBuffer(reader, 1, Constants.RASTER_DECODE_BAND_ROWS);
+                } finally {
+                    RasterFiles.close(reader);
                 }
+                System.out.println("ImageIO load successful: " +
+                        raster.getWidth() + "x" + raster.getHeight());
+                commitRasterDecode(imageIoEvent, raster);
+                cachedRasterImage = raster;
+                return raster;
             } catch (Exception ex) {
+                commitRasterDecode(imageIoEvent, null);
                 throw new RuntimeException("Unable to load raster. Convert to PNG/JPG for testing or add TIFF ImageIO plugin.", ex);
             }
         }
@@ -79,9 +228,218 @@ public class MapService {
         return raster;
     }
 
+    /**
+     * Loads the raster decoded close to the requested display size rather than at full resolution.
+     * Decodes are bucketed by integer subsampling factor, so the result is never smaller than the
+     * target, and kept in a small LRU cache bounded by {@link Constants#RASTER_CACHE_BYTES}.
+     * Blocking form of {@link #loadRasterImageAsync(double, double)}.
+     */
+    public Image loadRasterImage(double targetWidth, double targetHeight) {
+        return join(loadRasterImageAsync(targetWidth, targetHeight));
+    }
+
+    /**
+     * Decodes the world raster for a display of the given size on a loader thread.
+     * Requests that map to the same decode size share one decode, whether it is
+     * cached or still in progress.
+     */
+    public CompletableFuture<Image> loadRasterImageAsync(double targetWidth, double targetHeight) {
+        int[] sourceSize = rasterSourceSize();
+        if (sourceSize == null) {
+            return CompletableFuture.supplyAsync(this::loadRasterImage, LOADER);
+        }
+
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            targetWidth = Constants.DEFAULT_WINDOW_WIDTH;
+            targetHeight = Constants.DEFAULT_WINDOW_HEIGHT;
+        }
+        int subsampling = (int) Math.max(1, Math.floor(
+                Math.min(sourceSize[0] / targetWidth, sourceSize[1] / targetHeight)));
+
+        int key = subsampling;
+        synchronized (sizedRasterCache) {
+            Image cached = sizedRasterCache.get(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            CompletableFuture<Image> pending = rasterLoads.get(key);
+            if (pending == null) {
+                pending = CompletableFuture.supplyAsync(() -> decodeAndCache(key, sourceSize), LOADER);
+                rasterLoads.put(key, pending);
+                pending.whenComplete((image, error) -> {
+                    synchronized (sizedRasterCache) {
+                        rasterLoads.remove(key);
+                    }
+                });
+            }
+            return pending;
+        }
+    }
+
+    private Image decodeAndCache(int subsampling, int[] sourceSize) {
+        Image raster = decodeRaster(subsampling, sourceSize);
+
+        synchronized (sizedRasterCache) {
+            if (sizedRasterCache.put(subsampling, raster) == null) {
+                sizedRasterBytes += imageBytes(raster);
+            }
+            // Evict least recently used decodes, always keeping the one just added
+            Iterator<Map.Entry<Integer, Image>> it = sizedRasterCache.entrySet().iterator();
+            while (sizedRasterBytes > Constants.RASTER_CACHE_BYTES && sizedRasterCache.size() > 1) {
+                sizedRasterBytes -= imageBytes(it.next().getValue());
+                it.remove();
+            }
+        }
+        return raster;
+    }
+
+    private Image decodeRaster(int subsampling, int[] sourceSize) {
+        int width = (sourceSize[0] + subsampling - 1) / subsampling;
+        int height = (sourceSize[1] + subsampling - 1) / subsampling;
+
+        // Try JavaFX Image first, which can scale while decoding
+        RasterDecodeEvent fxEvent = beginRasterDecode(RASTER_PATH_JAVAFX, subsampling);
+        try (InputStream is = new FileInputStream(Constants.RASTER_PATH)) {
+            Image raster = new Image(is, width, height, false, true);
+            if (!raster.isError() && raster.getWidth() > 0 && raster.getHeight() > 0) {
+                System.out.println("JavaFX sized Image load successful: " +
+                        raster.getWidth() + "x" + raster.getHeight());
+                commitRasterDecode(fxEvent, raster);
+                return raster;
+            }
+        } catch (Exception e) {
+            System.err.println("JavaFX sized Image load failed: " + e.getMessage());
+        }
+        commitRasterDecode(fxEvent, null);
+
+        // Fallback to ImageIO, subsampling while reading so the full raster is never materialised
+        RasterDecodeEvent imageIoEvent = beginRasterDecode(RASTER_PATH_PIXEL_BUFFER, subsampling);
+        try {
+            ImageReader reader = RasterFiles.openReader(new File(Constants.RASTER_PATH));
+            try {
+                Image raster = RasterFiles.readIntoPixelBuffer(reader, subsampling, Constants.RASTER_DECODE_BAND_ROWS);
+                System.out.println("ImageIO subsampled load successful: " +
+                        raster.getWidth() + "x" + raster.getHeight() + " (1/" + subsampling + ")");
+                commitRasterDecode(imageIoEvent, raster);
+                return raster;
+            } finally {
+                RasterFiles.close(reader);
+            }
+        } catch (Exception ex) {
+            commitRasterDecode(imageIoEvent, null);
+            throw new RuntimeException("Unable to load raster. Convert to PNG/JPG for testing or add TIFF ImageIO plugin.", ex);
+        }
+    }
+
+    private static RasterDecodeEvent beginRasterDecode(String path, int subsampling) {
+        RasterDecodeEvent event = new RasterDecodeEvent();
+        event.path = path;
+        event.subsampling = subsampling;
+        event.begin();
+        return event;
+    }
+
+    private static void commitRasterDecode(RasterDecodeEvent event, Image raster) {
+        if (raster != null) {
+            event.width = (int) raster.getWidth();
+            event.height = (int) raster.getHeight();
+            event.succeeded = true;
+        }
+        event.commit();
+    }
+
+    /** Full-resolution raster dimensions read from the file header, or null if unreadable. Do not modify. */
+    public int[] rasterSourceSize() {
+        int[] size = cachedRasterSourceSize;
+        if (size != null) {
+            return size;
+        }
+
+        try {
+            ImageReader reader = RasterFiles.openReader(new File(Constants.RASTER_PATH));
+            try {
+                cachedRasterSourceSize = new int[] {reader.getWidth(0), reader.getHeight(0)};
+                return cachedRasterSourceSize;
+            } finally {
+                RasterFiles.close(reader);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read raster header: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long imageBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * Opens the tile pyramid for the world raster. Only the raster header is read here;
+     * tiles are cut on demand by {@link TileCache}, off this thread and without the raster lock.
+     * Backs {@link com.example.geofarer.views.TiledMapView} for zoomable maps.
+     */
+    public TilePyramid loadTilePyramid() {
+        TilePyramid pyramid = cachedTilePyramid;
+        if (pyramid != null) {
+            return pyramid;
+        }
+
+        synchronized (MapService.class) {
+            if (cachedTilePyramid == null) {
+                try {
+                    cachedTilePyramid = TilePyramid.open(new File(Constants.RASTER_PATH));
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to open raster tile pyramid.", e);
+                }
+            }
+            return cachedTilePyramid;
+        }
+    }
+
+    /**
+     * Blocking form of {@link #loadShapefileDataAsync()}. The list is the shared,
+     * unmodifiable country store, so it is returned without copying.
+     */
     public List<FeatureInfo> loadShapefileData() {
+        return join(loadShapefileDataAsync());
+    }
+
+    /**
+     * Loads the country data on a loader thread. All callers share one load: the first
+     * call starts it and later calls get the same future, completed or not. A load that
+     * produced no countries is forgotten so the next call retries.
+     */
+    public CompletableFuture<List<FeatureInfo>> loadShapefileDataAsync() {
+        synchronized (MapService.class) {
+            if (shapefileLoad == null) {
+                CompletableFuture<List<FeatureInfo>> load =
+                        CompletableFuture.supplyAsync(this::readCountryData, LOADER);
+                shapefileLoad = load;
+                load.whenComplete((features, error) -> {
+                    if (error != null || features.isEmpty()) {
+                        synchronized (MapService.class) {
+                            if (shapefileLoad == load) {
+                                shapefileLoad = null;
+                            }
+                        }
+                    }
+                });
+            }
+            return shapefileLoad;
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private List<FeatureInfo> readCountryData() {
         if (cachedFeatures != null && !cachedFeatures.isEmpty()) {
-            return new ArrayList<>(cachedFeatures);
+            return cachedFeatures;
         }
 
         List<FeatureInfo> featureInfos = new ArrayList<>();
@@ -92,20 +450,91 @@ public class MapService {
                 throw new RuntimeException("Missing shapefile: " + shpFile.getAbsolutePath());
             }
 
-            FileDataStore store = FileDataStoreFinder.getDataStore(shpFile);
-            if (store == null) {
-                throw new RuntimeException("Could not open shapefile store: " + shpFile.getAbsolutePath());
+            long sourceHash = sourceHash(shpFile);
+
+            // Warm starts map the processed snapshot instead of reparsing the shapefile
+            List<FeatureInfo> snapshot = GeometrySnapshot.load(sourceHash);
+            if (snapshot != null) {
+                featureInfos = snapshot;
+            } else {
+                try {
+                    featureInfos = readShapefileMapped(shpFile);
+                } catch (Exception e) {
+                    System.err.println("Mapped shapefile reader failed, falling back to GeoTools: " + e.getMessage());
+                    featureInfos = readShapefile(shpFile);
+                }
+                GeometrySnapshot.write(featureInfos, sourceHash);
+            }
+
+            // Cache results; findCountryAt checks the index first, so it is published after the features
+            STRtree index = buildIndex(featureInfos);
+            cachedFeatures = Collections.unmodifiableList(new ArrayList<>(featureInfos));
+            cachedSourceHash = sourceHash;
+            cachedIndex = index;
+
+            // The grid only speeds lookups up; without it findCountryAt uses the index alone
+            try {
+                cachedGrid = CountryLookupGrid.loadOrBuild(featureInfos, index,
+                        Constants.LOOKUP_GRID_RESOLUTION, sourceHash);
+            } catch (RuntimeException e) {
+                System.err.println("Could not build country lookup grid: " + e.getMessage());
             }
 
+            // Print some sample coordinates for debugging
+            if (!featureInfos.isEmpty()) {
+                FeatureInfo sample = featureInfos.get(0);
+                System.out.println("Sample geometry bounds: " + sample.envelope());
+            }
+
+        } catch (Exception e) {
+            System.err.println("Error loading shapefile: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return cachedFeatures != null ? cachedFeatures : Collections.unmodifiableList(featureInfos);
+    }
+
+    /**
+     * Drops the in-memory country data so the next {@link #loadShapefileData()}
+     * reloads it from the snapshot or shapefile. Used by benchmarks to measure cold loads.
+     */
+    public static void clearShapefileCache() {
+        synchronized (MapService.class) {
+            shapefileLoad = null;
+            adjacencyLoad = null;
+        }
+        cachedIndex = null;
+        cachedFeatures = null;
+        cachedGrid = null;
+    }
+
+    List<FeatureInfo> readShapefile(File shpFile) throws IOException {
+        List<CompletableFuture<FeatureInfo>> pending = new ArrayList<>();
+
+        ShapefileOpenEvent openEvent = new ShapefileOpenEvent();
+        openEvent.file = shpFile.getName();
+        openEvent.reader = "GeoTools";
+        openEvent.begin();
+        FileDataStore store = FileDataStoreFinder.getDataStore(shpFile);
+        if (store == null) {
+            throw new RuntimeException("Could not open shapefile store: " + shpFile.getAbsolutePath());
+        }
+
+        try {
             SimpleFeatureSource featureSource = store.getFeatureSource();
+            openEvent.commit();
 
             // Check coordinate reference system
+            CrsResolveEvent crsEvent = new CrsResolveEvent();
+            crsEvent.begin();
             CoordinateReferenceSystem crs = featureSource.getSchema().getCoordinateReferenceSystem();
             if (crs != null) {
-                System.out.println("Shapefile CRS: " + CRS.toSRS(crs));
+                crsEvent.crs = CRS.toSRS(crs);
+                System.out.println("Shapefile CRS: " + crsEvent.crs);
             } else {
                 System.out.println("No CRS found in shapefile, assuming WGS84");
             }
+            crsEvent.commit();
 
             SimpleFeatureCollection collection = featureSource.getFeatures();
             int featureCount = 0;
@@ -115,56 +544,284 @@ public class MapService {
                     Object geomObj = f.getDefaultGeometry();
                     if (!(geomObj instanceof Geometry)) continue;
 
-                    Geometry g = (Geometry) geomObj;
+                    pending.add(processAsync((Geometry) geomObj, extractName(f), featureCount));
+                    featureCount++;
+                }
+            }
+        } finally {
+            store.dispose();
+        }
 
-                    // Validate geometry bounds (should be in geographic coordinates)
-                    if (g.getEnvelopeInternal().getMinX() < -180 || g.getEnvelopeInternal().getMaxX() > 180 ||
-                            g.getEnvelopeInternal().getMinY() < -90 || g.getEnvelopeInternal().getMaxY() > 90) {
-                        System.err.println("Warning: Geometry bounds outside expected geographic range for feature: " +
-                                extractName(f));
-                    }
+        return collectInOrder(pending);
+    }
 
-                    // Simplify complex geometries for better performance
-                    Geometry simplified = g;
-                    if (g.getNumPoints() > 1000) {
-                        // Use a smaller tolerance for better precision
-                        simplified = TopologyPreservingSimplifier.simplify(g, 0.01);
-                    }
+    /** Reads the shapefile through {@link ShapefileReader}, bypassing the GeoTools feature model. */
+    List<FeatureInfo> readShapefileMapped(File shpFile) throws IOException {
+        List<CompletableFuture<FeatureInfo>> pending = new ArrayList<>();
 
-                    String name = extractName(f);
-                    FeatureInfo fi = new FeatureInfo(simplified, name);
-                    featureInfos.add(fi);
-                    featureCount++;
-                }
-            } finally {
-                store.dispose();
+        ShapefileOpenEvent openEvent = new ShapefileOpenEvent();
+        openEvent.file = shpFile.getName();
+        openEvent.reader = "Memory-mapped";
+        openEvent.begin();
+        ShapefileReader reader = ShapefileReader.open(shpFile);
+        openEvent.commit();
+
+        CrsResolveEvent crsEvent = new CrsResolveEvent();
+        crsEvent.begin();
+        String projection = ShapefileReader.readProjection(shpFile);
+        if (projection != null) {
+            crsEvent.crs = projection;
+            System.out.println("Shapefile projection: " + projection);
+        } else {
+            System.out.println("No .prj found for shapefile, assuming WGS84");
+        }
+        crsEvent.commit();
+
+        int featureCount = 0;
+        for (int i = 0; i < reader.getRecordCount(); i++) {
+            Geometry g = reader.readGeometry(i);
+            if (g == null) continue;
+
+            pending.add(processAsync(g, extractName(reader, i), featureCount));
+            featureCount++;
+        }
+
+        return collectInOrder(pending);
+    }
+
+    /**
+     * Second pipeline stage: the reader stays on the calling thread and hands each raw
+     * feature over as soon as it is read, while validation, simplification and render
+     * levels run across cores on the common ForkJoin pool.
+     */
+    private CompletableFuture<FeatureInfo> processAsync(Geometry g, String name, int index) {
+        return CompletableFuture.supplyAsync(() -> toFeatureInfo(g, name, index));
+    }
+
+    /** Waits for every processed feature, returning them in the order they were read. */
+    private List<FeatureInfo> collectInOrder(List<CompletableFuture<FeatureInfo>> pending) {
+        List<FeatureInfo> featureInfos = new ArrayList<>(pending.size());
+        try {
+            for (CompletableFuture<FeatureInfo> future : pending) {
+                featureInfos.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to process shapefile feature", e.getCause());
+        }
+        return featureInfos;
+    }
+
+    private FeatureInfo toFeatureInfo(Geometry g, String name, int index) {
+        FeatureSimplifyEvent event = new FeatureSimplifyEvent();
+        event.begin();
+
+        // Validate geometry bounds (should be in geographic coordinates)
+        if (g.getEnvelopeInternal().getMinX() < -180 || g.getEnvelopeInternal().getMaxX() > 180 ||
+                g.getEnvelopeInternal().getMinY() < -90 || g.getEnvelopeInternal().getMaxY() > 90) {
+            System.err.println("Warning: Geometry bounds outside expected geographic range for feature: " + name);
+        }
+
+        // Simplify complex geometries for better performance; this is also render level 0
+        Geometry simplified = simplifyForLevel(g, 0);
+
+        FeatureInfo fi = new FeatureInfo(simplified, name, index, buildLods(g, simplified));
+
+        event.country = name;
+        event.inputPoints = g.getNumPoints();
+        event.outputPoints = simplified.getNumPoints();
+        event.commit();
+        return fi;
+    }
+
+    /**
+     * Find the country containing the given WGS84 coordinate.
+     * The lookup grid answers most points with a single array read; points in border
+     * cells or on a cell edge fall back to exact tests on features whose envelope
+     * contains the point, so a point on a border is in no country, grid or not.
+     * When several match, the one earliest in load order wins so results agree with
+     * a linear scan.
+     *
+     * @return the matching feature, or null if the point is not inside any country
+     */
+    public FeatureInfo findCountryAt(double lon, double lat) {
+        return findCountryAt(lon, lat, null);
+    }
+
+    /**
+     * Like {@link #findCountryAt(double, double)}, but first re-tests {@code previous}.
+     * Consecutive queries such as mouse moves almost always land in the same country, so
+     * in border cells one prepared containment test usually settles the point; only
+     * countries earlier in load order are still tested, so the result is the same.
+     */
+    public FeatureInfo findCountryAt(double lon, double lat, FeatureInfo previous) {
+        STRtree index = cachedIndex;
+        if (index == null) {
+            return null;
+        }
+
+        CountryLookupGrid grid = cachedGrid;
+        if (grid != null) {
+            short cell = grid.lookup(lon, lat);
+            if (cell == CountryLookupGrid.NO_COUNTRY) {
+                return null;
+            }
+            if (cell >= 0) {
+                return cachedFeatures.get(cell);
             }
+        }
 
-            System.out.println("Loaded " + featureCount + " countries from shapefile");
+        Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat));
+        FeatureInfo match = null;
+        if (previous != null && previous.envelope().contains(lon, lat) && previous.prepared().contains(point)) {
+            match = previous;
+        }
+        for (Object candidate : index.query(new Envelope(lon, lon, lat, lat))) {
+            FeatureInfo fi = (FeatureInfo) candidate;
+            if ((match == null || fi.index < match.index) && fi.prepared().contains(point)) {
+                match = fi;
+            }
+        }
+        return match;
+    }
 
-            // Cache results
-            cachedFeatures = new ArrayList<>(featureInfos);
+    /**
+     * Which countries border each other, indexed like the list from {@link #loadShapefileData()}.
+     * Blocking form of {@link #getAdjacencyAsync()}.
+     *
+     * @return the adjacency graph, or null if it could not be built
+     */
+    public CountryAdjacency getAdjacency() {
+        return join(getAdjacencyAsync());
+    }
 
-            // Print some sample coordinates for debugging
-            if (!featureInfos.isEmpty()) {
-                FeatureInfo sample = featureInfos.get(0);
-                if (sample.geom != null) {
-                    System.out.println("Sample geometry bounds: " + sample.geom.getEnvelopeInternal());
+    /**
+     * Loads or builds the adjacency graph on a loader thread the first time it is asked for,
+     * so loading the countries never waits for the spatial join. A failed build completes
+     * with null and is retried on the next call.
+     */
+    public CompletableFuture<CountryAdjacency> getAdjacencyAsync() {
+        return loadShapefileDataAsync().thenCompose(features -> {
+            synchronized (MapService.class) {
+                STRtree index = cachedIndex;
+                if (index == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (adjacencyLoad == null) {
+                    long sourceHash = cachedSourceHash;
+                    CompletableFuture<CountryAdjacency> build = CompletableFuture.supplyAsync(
+                            () -> CountryAdjacency.loadOrBuild(features, index, Constants.ADJACENCY_TOLERANCE, sourceHash),
+                            LOADER);
+                    CompletableFuture<CountryAdjacency> load = build.exceptionally(error -> {
+                        System.err.println("Could not build country adjacency: " + error.getMessage());
+                        return null;
+                    });
+                    adjacencyLoad = load;
+                    load.thenAccept(adjacency -> {
+                        if (adjacency == null) {
+                            synchronized (MapService.class) {
+                                if (adjacencyLoad == load) {
+                                    adjacencyLoad = null;
+                                }
+                            }
+                        }
+                    });
                 }
+                return adjacencyLoad;
             }
+        });
+    }
 
+    /**
+     * Picks the coarsest level of detail whose simplification error stays under one pixel.
+     *
+     * @param pixelsPerDegree display scale along the more stretched axis
+     */
+    public static int lodLevelFor(double pixelsPerDegree) {
+        double[] tolerances = Constants.LOD_TOLERANCES;
+        for (int level = tolerances.length - 1; level > 0; level--) {
+            if (tolerances[level] * pixelsPerDegree <= 1.0) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Largest scale at which {@link #lodLevelFor(double)} still picks {@code level}.
+     * The finest level has no upper bound, so the largest map size is used.
+     */
+    public static double maxPixelsPerDegree(int level) {
+        double[] tolerances = Constants.LOD_TOLERANCES;
+        if (level > 0 && level < tolerances.length) {
+            return 1.0 / tolerances[level];
+        }
+        return Math.max(Constants.MAX_MAP_WIDTH / 360.0, Constants.MAX_MAP_HEIGHT / 180.0);
+    }
+
+    private Geometry[] buildLods(Geometry original, Geometry base) {
+        Geometry[] lods = new Geometry[Constants.LOD_TOLERANCES.length];
+        lods[0] = base;
+        for (int level = 1; level < lods.length; level++) {
+            // Simplify from the original each time so errors do not accumulate between levels
+            lods[level] = simplifyForLevel(original, level);
+        }
+        return lods;
+    }
+
+    /**
+     * One level of detail of a country, simplified from the geometry read from the shapefile.
+     * Level 0 is also the hit-testing geometry and is only simplified for large outlines.
+     */
+    public static Geometry simplifyForLevel(Geometry original, int level) {
+        if (level == 0 && original.getNumPoints() <= 1000) {
+            return original;
+        }
+        return TopologyPreservingSimplifier.simplify(original, Constants.LOD_TOLERANCES[level]);
+    }
+
+    private long sourceHash(File shpFile) {
+        try {
+            File dbfFile = new File(shpFile.getPath().replaceAll("\\.shp$", ".dbf"));
+            return CacheFiles.hash(shpFile, dbfFile);
         } catch (Exception e) {
-            System.err.println("Error loading shapefile: " + e.getMessage());
-            e.printStackTrace();
+            // Unhashable sources never match a cache entry, forcing a rebuild
+            System.err.println("Could not hash shapefile: " + e.getMessage());
+            return System.nanoTime();
         }
+    }
 
-        return featureInfos;
+    private STRtree buildIndex(List<FeatureInfo> featureInfos) {
+        STRtree index = new STRtree();
+        for (FeatureInfo fi : featureInfos) {
+            index.insert(fi.envelope(), fi);
+        }
+        // Build eagerly so queries never mutate the tree
+        index.build();
+        return index;
+    }
+
+    private static final String[] NAME_KEYS = {"NAME", "NAME_LONG", "ADMIN", "SOVEREIGNT", "NAME_EN", "name", "admin"};
+
+    private String extractName(ShapefileReader reader, int record) {
+        // Same preference order as the GeoTools path
+        for (String k : NAME_KEYS) {
+            String value = reader.readAttribute(record, k);
+            if (value != null) {
+                return value;
+            }
+        }
+        for (String field : reader.getFieldNames()) {
+            String value = reader.readAttribute(record, field);
+            if (value != null) {
+                return value;
+            }
+        }
+        return "Unknown";
     }
 
     private String extractName(SimpleFeature feature) {
         // Try various common name attributes in order of preference
-        String[] keys = {"NAME", "NAME_LONG", "ADMIN", "SOVEREIGNT", "NAME_EN", "name", "admin"};
-        for (String k : keys) {
+        for (String k : NAME_KEYS) {
             Object attr = feature.getAttribute(k);
             if (attr != null && !attr.toString().trim().isEmpty()) {
                 return attr.toString().trim();
@@ -0,0 +1,135 @@
+package com.example.geofarer.services;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Exterior rings of a (Multi)Polygon packed into one flat lon/lat array, so render
+ * code can project them with primitive loops instead of walking JTS objects.
+ * Ring {@code r} covers coordinate pairs {@code ringStart(r)} until {@code ringEnd(r)}.
+ */
+public final class PackedRings {
+    private final double[] coords;
+    private final int[] offsets;
+    // minLon, minLat, maxLon, maxLat per ring, for culling parts without touching their points
+    private final double[] ringBounds;
+
+    PackedRings(double[] coords, int[] offsets) {
+        this.coords = coords;
+        this.offsets = offsets;
+        this.ringBounds = new double[(offsets.length - 1) * 4];
+        for (int r = 0; r < offsets.length - 1; r++) {
+            double minLon = Double.POSITIVE_INFINITY, minLat = Double.POSITIVE_INFINITY;
+            double maxLon = Double.NEGATIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+            for (int i = offsets[r] * 2; i < offsets[r + 1] * 2; i += 2) {
+                minLon = Math.min(minLon, coords[i]);
+                maxLon = Math.max(maxLon, coords[i]);
+                minLat = Math.min(minLat, coords[i + 1]);
+                maxLat = Math.max(maxLat, coords[i + 1]);
+            }
+            ringBounds[r * 4] = minLon;
+            ringBounds[r * 4 + 1] = minLat;
+            ringBounds[r * 4 + 2] = maxLon;
+            ringBounds[r * 4 + 3] = maxLat;
+        }
+    }
+
+    public static PackedRings of(Geometry g) {
+        int numParts = g == null ? 0 : g.getNumGeometries();
+
+        int rings = 0;
+        int points = 0;
+        for (int p = 0; p < numParts; p++) {
+            Geometry part = g.getGeometryN(p);
+            if (part instanceof Polygon) {
+                rings++;
+                points += ((Polygon) part).getExteriorRing().getNumPoints();
+            }
+        }
+
+        double[] coords = new double[points * 2];
+        int[] offsets = new int[rings + 1];
+        int ring = 0;
+        int pos = 0;
+        for (int p = 0; p < numParts; p++) {
+            Geometry part = g.getGeometryN(p);
+            if (!(part instanceof Polygon)) continue;
+
+            CoordinateSequence seq = ((Polygon) part).getExteriorRing().getCoordinateSequence();
+            offsets[ring++] = pos / 2;
+            for (int i = 0; i < seq.size(); i++) {
+                coords[pos++] = seq.getX(i);
+                coords[pos++] = seq.getY(i);
+            }
+        }
+        offsets[ring] = pos / 2;
+        return new PackedRings(coords, offsets);
+    }
+
+    public int ringCount() {
+        return offsets.length - 1;
+    }
+
+    public int ringStart(int ring) {
+        return offsets[ring];
+    }
+
+    public int ringEnd(int ring) {
+        return offsets[ring + 1];
+    }
+
+    public double ringMinLon(int ring) {
+        return ringBounds[ring * 4];
+    }
+
+    public double ringMinLat(int ring) {
+        return ringBounds[ring * 4 + 1];
+    }
+
+    public double ringMaxLon(int ring) {
+        return ringBounds[ring * 4 + 2];
+    }
+
+    public double ringMaxLat(int ring) {
+        return ringBounds[ring * 4 + 3];
+    }
+
+    public int pointCount() {
+        return coords.length / 2;
+    }
+
+    public double lon(int point) {
+        return coords[point * 2];
+    }
+
+    public double lat(int point) {
+        return coords[point * 2 + 1];
+    }
+
+    /** Writes ring offsets followed by coordinates, the layout read back by {@link GeometrySnapshot}. */
+    void writeTo(DataOutput out) throws IOException {
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        for (double coord : coords) {
+            out.writeDouble(coord);
+        }
+    }
+
+    /**
+     * Projects every point onto an equirectangular display of the given size, writing
+     * interleaved x,y values into {@code out}, which must hold at least {@code 2 * pointCount()}.
+     */
+    public void project(double displayedW, double displayedH, double[] out) {
+        double sx = displayedW / 360.0;
+        double sy = displayedH / 180.0;
+        for (int i = 0; i < coords.length; i += 2) {
+            out[i] = (coords[i] + 180.0) * sx;
+            out[i + 1] = (90.0 - coords[i + 1]) * sy;
+        }
+    }
+}
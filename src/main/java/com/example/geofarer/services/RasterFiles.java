@@ -0,0 +1,102 @@
+package com.example.geofarer.services;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Iterator;
+
+/** ImageIO plumbing shared by the raster loaders. */
+public class RasterFiles {
+
+    /** Opens an ImageIO reader positioned on the first image of the file. Release with {@link #close}. */
+    public static ImageReader openReader(File rasterFile) throws IOException {
+        ImageInputStream input = ImageIO.createImageInputStream(rasterFile);
+        if (input == null) {
+            throw new IOException("Cannot open raster: " + rasterFile.getAbsolutePath());
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            input.close();
+            throw new IOException("No ImageIO reader for raster: " + rasterFile.getAbsolutePath());
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    public static void close(ImageReader reader) throws IOException {
+        Object input = reader.getInput();
+        reader.dispose();
+        if (input instanceof ImageInputStream) {
+            ((ImageInputStream) input).close();
+        }
+    }
+
+    /**
+     * Decodes the first image into a JavaFX image backed by a direct buffer, a band of
+     * {@code bandRows} output rows at a time. Only one band is ever held as a
+     * {@link BufferedImage}, so the full-size pixels exist once, outside the heap,
+     * instead of as a BufferedImage plus a SwingFXUtils copy.
+     */
+    public static WritableImage readIntoPixelBuffer(ImageReader reader, int subsampling, int bandRows) throws IOException {
+        int sourceWidth = reader.getWidth(0);
+        int sourceHeight = reader.getHeight(0);
+        int width = (sourceWidth + subsampling - 1) / subsampling;
+        int height = (sourceHeight + subsampling - 1) / subsampling;
+
+        IntBuffer pixels = ByteBuffer.allocateDirect(Math.multiplyExact(Math.multiplyExact(width, height), 4))
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        int[] row = new int[width];
+
+        // Bands start on a multiple of the subsampling factor so they line up with the output grid
+        int sourceBand = bandRows * subsampling;
+        for (int y0 = 0; y0 < sourceHeight; y0 += sourceBand) {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle(0, y0, sourceWidth, Math.min(sourceBand, sourceHeight - y0)));
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            BufferedImage band = reader.read(0, param);
+
+            boolean alpha = band.getColorModel().hasAlpha();
+            int outY = y0 / subsampling;
+            int rows = Math.min(band.getHeight(), height - outY);
+            int cols = Math.min(band.getWidth(), width);
+            for (int y = 0; y < rows; y++) {
+                band.getRGB(0, y, cols, 1, row, 0, width);
+                if (alpha) {
+                    premultiply(row, cols);
+                }
+                pixels.put((outY + y) * width, row, 0, cols);
+            }
+        }
+
+        return new WritableImage(new PixelBuffer<>(width, height, pixels, PixelFormat.getIntArgbPreInstance()));
+    }
+
+    /** Converts ARGB pixels to the premultiplied form the pixel buffer expects. */
+    private static void premultiply(int[] argb, int count) {
+        for (int i = 0; i < count; i++) {
+            int p = argb[i];
+            int a = p >>> 24;
+            if (a == 0xFF) {
+                continue;
+            }
+            int r = ((p >> 16) & 0xFF) * a / 0xFF;
+            int g = ((p >> 8) & 0xFF) * a / 0xFF;
+            int b = (p & 0xFF) * a / 0xFF;
+            argb[i] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+}
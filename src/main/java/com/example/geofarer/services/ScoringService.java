@@ -0,0 +1,269 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.Constants;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.index.strtree.AbstractNode;
+import org.locationtech.jts.index.strtree.Boundable;
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distance-based scoring for clicks: the great-circle distance from the click to the
+ * nearest point of the target country, turned into points with a linear falloff.
+ * <p>
+ * Each country's boundary segments are indexed once in an STRtree. A query walks the
+ * tree best-first, pruning nodes whose lat/lon box is further away on the sphere than
+ * the closest segment found so far, so only a handful of segments are measured even
+ * for long coastlines.
+ */
+public class ScoringService {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final Map<FeatureInfoKey, BoundaryIndex> boundaryIndexes = new ConcurrentHashMap<>();
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    /**
+     * Great-circle distance in km from a point to the nearest point of the country;
+     * 0 if the point is inside it.
+     */
+    public double distanceKm(MapService.FeatureInfo target, double lon, double lat) {
+        if (target.envelope().contains(lon, lat)
+                && target.prepared().contains(GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat)))) {
+            return 0;
+        }
+        return boundaryIndex(target).nearestAngle(lon, lat) * EARTH_RADIUS_KM;
+    }
+
+    /**
+     * Points for a click: {@link Constants#POINTS_PER_CORRECT_ANSWER} inside the target,
+     * falling linearly to zero at {@link Constants#SCORING_ZERO_POINTS_KM}.
+     */
+    public int score(MapService.FeatureInfo target, double lon, double lat) {
+        return scoreForDistance(distanceKm(target, lon, lat));
+    }
+
+    public static int scoreForDistance(double km) {
+        double fraction = Math.max(0, 1.0 - km / Constants.SCORING_ZERO_POINTS_KM);
+        return (int) Math.round(Constants.POINTS_PER_CORRECT_ANSWER * fraction);
+    }
+
+    /** Builds the segment index for a country ahead of its first scoring call. */
+    public void prepareTarget(MapService.FeatureInfo target) {
+        boundaryIndex(target);
+    }
+
+    private static BoundaryIndex boundaryIndex(MapService.FeatureInfo fi) {
+        return boundaryIndexes.computeIfAbsent(new FeatureInfoKey(fi), key -> new BoundaryIndex(fi.geometry()));
+    }
+
+    /** Keyed by name and index so reloaded country lists reuse the same indexes. */
+    private record FeatureInfoKey(String name, int index) {
+        FeatureInfoKey(MapService.FeatureInfo fi) {
+            this(fi.name, fi.index);
+        }
+    }
+
+    /** Boundary segments of one country with their endpoints as unit vectors. */
+    private static final class BoundaryIndex {
+        private final STRtree tree = new STRtree();
+        // x, y, z of segment start then end, six values per segment
+        private final double[] ends;
+
+        BoundaryIndex(Geometry geometry) {
+            List<LineString> rings = new ArrayList<>();
+            for (int p = 0; p < geometry.getNumGeometries(); p++) {
+                Geometry part = geometry.getGeometryN(p);
+                if (part instanceof Polygon polygon) {
+                    rings.add(polygon.getExteriorRing());
+                    for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+                        rings.add(polygon.getInteriorRingN(h));
+                    }
+                }
+            }
+
+            int segments = 0;
+            for (LineString ring : rings) {
+                segments += Math.max(0, ring.getNumPoints() - 1);
+            }
+            ends = new double[segments * 6];
+
+            int s = 0;
+            for (LineString ring : rings) {
+                CoordinateSequence seq = ring.getCoordinateSequence();
+                for (int i = 0; i + 1 < seq.size(); i++, s++) {
+                    double lon0 = seq.getX(i), lat0 = seq.getY(i);
+                    double lon1 = seq.getX(i + 1), lat1 = seq.getY(i + 1);
+                    toUnit(lon0, lat0, ends, s * 6);
+                    toUnit(lon1, lat1, ends, s * 6 + 3);
+                    tree.insert(arcEnvelope(lon0, lat0, lon1, lat1, s * 6), s);
+                }
+            }
+            tree.build();
+        }
+
+        /**
+         * Lat/lon box of a segment's great-circle arc. The arc bulges towards the pole,
+         * so long east-west segments reach past the latitudes of their endpoints.
+         */
+        private Envelope arcEnvelope(double lon0, double lat0, double lon1, double lat1, int o) {
+            Envelope env = new Envelope(lon0, lon1, lat0, lat1);
+            double nx = ends[o + 1] * ends[o + 5] - ends[o + 2] * ends[o + 4];
+            double ny = ends[o + 2] * ends[o + 3] - ends[o] * ends[o + 5];
+            double nz = ends[o] * ends[o + 4] - ends[o + 1] * ends[o + 3];
+            double nLen2 = nx * nx + ny * ny + nz * nz;
+            if (nLen2 < 1e-30) {
+                return env;
+            }
+            // Highest point of the great circle: the pole direction projected onto its plane
+            double k = nz / nLen2;
+            double vx = -k * nx, vy = -k * ny, vz = 1 - k * nz;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                double[] v = {sign * vx, sign * vy, sign * vz};
+                if (onArc(v, o, nx, ny, nz)) {
+                    double len = Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+                    if (len > 0) {
+                        env.expandToInclude(lon0, Math.toDegrees(Math.asin(v[2] / len)));
+                    }
+                }
+            }
+            return env;
+        }
+
+        private boolean onArc(double[] c, int o, double nx, double ny, double nz) {
+            double ax = ends[o], ay = ends[o + 1], az = ends[o + 2];
+            double bx = ends[o + 3], by = ends[o + 4], bz = ends[o + 5];
+            double sideA = (ay * c[2] - az * c[1]) * nx + (az * c[0] - ax * c[2]) * ny + (ax * c[1] - ay * c[0]) * nz;
+            double sideB = (c[1] * bz - c[2] * by) * nx + (c[2] * bx - c[0] * bz) * ny + (c[0] * by - c[1] * bx) * nz;
+            return sideA >= 0 && sideB >= 0;
+        }
+
+        /** Smallest central angle in radians from the point to any boundary segment. */
+        double nearestAngle(double lon, double lat) {
+            double[] p = new double[3];
+            toUnit(lon, lat, p, 0);
+            if (tree.isEmpty()) {
+                return Math.PI;
+            }
+
+            double best = Double.POSITIVE_INFINITY;
+            PriorityQueue<Candidate> queue = new PriorityQueue<>();
+            queue.add(new Candidate(0, tree.getRoot()));
+            while (!queue.isEmpty()) {
+                Candidate c = queue.poll();
+                if (c.bound >= best) {
+                    break;
+                }
+                if (c.node instanceof AbstractNode node) {
+                    for (Object child : node.getChildBoundables()) {
+                        Boundable b = (Boundable) child;
+                        double bound = boxAngle(lon, lat, (Envelope) b.getBounds());
+                        if (bound < best) {
+                            queue.add(new Candidate(bound, b));
+                        }
+                    }
+                } else {
+                    int segment = (Integer) ((ItemBoundable) c.node).getItem();
+                    best = Math.min(best, segmentAngle(p, segment * 6));
+                }
+            }
+            return best;
+        }
+
+        /** Central angle from unit vector {@code p} to the great-circle arc of a segment. */
+        private double segmentAngle(double[] p, int o) {
+            double ax = ends[o], ay = ends[o + 1], az = ends[o + 2];
+            double bx = ends[o + 3], by = ends[o + 4], bz = ends[o + 5];
+
+            // Normal of the segment's great circle
+            double nx = ay * bz - az * by;
+            double ny = az * bx - ax * bz;
+            double nz = ax * by - ay * bx;
+            double nLen = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (nLen > 1e-15) {
+                nx /= nLen;
+                ny /= nLen;
+                nz /= nLen;
+                double pn = p[0] * nx + p[1] * ny + p[2] * nz;
+                // Projection of p onto the great circle
+                double cx = p[0] - pn * nx, cy = p[1] - pn * ny, cz = p[2] - pn * nz;
+                // c lies on the arc if it is on the inner side of both endpoints
+                if (onArc(new double[]{cx, cy, cz}, o, nx, ny, nz)) {
+                    return Math.atan2(Math.abs(pn), Math.sqrt(cx * cx + cy * cy + cz * cz));
+                }
+            }
+            return Math.min(angle(p, ax, ay, az), angle(p, bx, by, bz));
+        }
+    }
+
+    private record Candidate(double bound, Object node) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(bound, other.bound);
+        }
+    }
+
+    /**
+     * Smallest central angle in radians from a point to a lat/lon box. Exact, so it is
+     * a valid lower bound for anything inside the box.
+     */
+    static double boxAngle(double lon, double lat, Envelope box) {
+        if (lonWithin(lon, box.getMinX(), box.getMaxX())) {
+            if (lat > box.getMaxY()) return Math.toRadians(lat - box.getMaxY());
+            if (lat < box.getMinY()) return Math.toRadians(box.getMinY() - lat);
+            return 0;
+        }
+        // Otherwise the nearest point lies on one of the two bounding meridians
+        return Math.min(meridianAngle(lon, lat, box.getMinX(), box.getMinY(), box.getMaxY()),
+                meridianAngle(lon, lat, box.getMaxX(), box.getMinY(), box.getMaxY()));
+    }
+
+    private static boolean lonWithin(double lon, double minLon, double maxLon) {
+        return lon >= minLon && lon <= maxLon;
+    }
+
+    /** Central angle from a point to the meridian segment at {@code meridian} between two latitudes. */
+    private static double meridianAngle(double lon, double lat, double meridian, double minLat, double maxLat) {
+        double dLon = Math.toRadians(lon - meridian);
+        double phi = Math.toRadians(lat);
+        double lo = Math.toRadians(minLat);
+        double hi = Math.toRadians(maxLat);
+        // Closest point on the whole meridian half-circle; past 90 degrees of longitude it is the near pole
+        double closest = Math.cos(dLon) > 0
+                ? Math.atan(Math.tan(phi) / Math.cos(dLon))
+                : Math.copySign(Math.PI / 2, phi);
+        double t = Math.max(lo, Math.min(hi, closest));
+        double best = Math.max(meridianCos(phi, dLon, t), Math.max(meridianCos(phi, dLon, lo), meridianCos(phi, dLon, hi)));
+        return Math.acos(Math.max(-1, Math.min(1, best)));
+    }
+
+    private static double meridianCos(double phi, double dLon, double t) {
+        return Math.sin(phi) * Math.sin(t) + Math.cos(phi) * Math.cos(t) * Math.cos(dLon);
+    }
+
+    private static void toUnit(double lon, double lat, double[] out, int offset) {
+        double lambda = Math.toRadians(lon);
+        double phi = Math.toRadians(lat);
+        out[offset] = Math.cos(phi) * Math.cos(lambda);
+        out[offset + 1] = Math.cos(phi) * Math.sin(lambda);
+        out[offset + 2] = Math.sin(phi);
+    }
+
+    private static double angle(double[] p, double x, double y, double z) {
+        double cx = p[1] * z - p[2] * y;
+        double cy = p[2] * x - p[0] * z;
+        double cz = p[0] * y - p[1] * x;
+        return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), p[0] * x + p[1] * y + p[2] * z);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.geofarer.services;
+
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.algorithm.PointLocation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal reader for polygon shapefiles that memory-maps the .shp/.shx/.dbf triple and
+ * decodes records straight from the mapped buffers. Records are addressed by index
+ * through the .shx, so any record can be read without scanning the ones before it.
+ * Only what the game needs is supported: (Multi)Polygon shapes and text attributes.
+ */
+public class ShapefileReader {
+    private static final int SHAPE_NULL = 0;
+    private static final int SHAPE_POLYGON = 5;
+    private static final int SHAPE_POLYGON_Z = 15;
+    private static final int SHAPE_POLYGON_M = 25;
+    private static final int HEADER_LENGTH = 100;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final ByteBuffer shp;
+    private final ByteBuffer shx;
+    private final ByteBuffer dbf;
+    private final Charset charset;
+    private final int recordCount;
+
+    // .dbf layout
+    private final int dbfHeaderLength;
+    private final int dbfRecordLength;
+    private final Map<String, int[]> fields = new HashMap<>(); // name -> {offset, length}
+    private final List<String> fieldNames = new ArrayList<>();
+
+    /** Decoded polygon record: rings as offsets into one flat x,y array. */
+    public static final class ShapeRecord {
+        public final int[] parts;
+        public final double[] coords;
+
+        ShapeRecord(int[] parts, double[] coords) {
+            this.parts = parts;
+            this.coords = coords;
+        }
+
+        public int partCount() {
+            return parts.length;
+        }
+
+        public int partStart(int part) {
+            return parts[part];
+        }
+
+        public int partEnd(int part) {
+            return part + 1 < parts.length ? parts[part + 1] : coords.length / 2;
+        }
+    }
+
+    private ShapefileReader(File shpFile) throws IOException {
+        String base = shpFile.getPath().replaceAll("\\.shp$", "");
+        this.shp = map(shpFile);
+        this.shx = map(new File(base + ".shx"));
+        this.dbf = map(new File(base + ".dbf"));
+        this.charset = readCharset(new File(base + ".cpg"));
+
+        if (shp.getInt(0) != 9994 || shx.getInt(0) != 9994) {
+            throw new IOException("Not a shapefile: " + shpFile.getAbsolutePath());
+        }
+        this.recordCount = (shx.capacity() - HEADER_LENGTH) / 8;
+
+        ByteBuffer d = dbf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int dbfRecords = d.getInt(4);
+        if (dbfRecords != recordCount) {
+            throw new IOException("Record count mismatch between .shx (" + recordCount + ") and .dbf (" + dbfRecords + ")");
+        }
+        this.dbfHeaderLength = d.getShort(8) & 0xFFFF;
+        this.dbfRecordLength = d.getShort(10) & 0xFFFF;
+
+        // Field descriptors are 32 bytes each, terminated by 0x0D; values start after the deletion flag
+        int fieldOffset = 1;
+        for (int pos = 32; pos + 32 <= dbfHeaderLength && dbf.get(pos) != 0x0D; pos += 32) {
+            byte[] nameBytes = new byte[11];
+            dbf.duplicate().position(pos).get(nameBytes);
+            int nameLength = 0;
+            while (nameLength < nameBytes.length && nameBytes[nameLength] != 0) nameLength++;
+            String name = new String(nameBytes, 0, nameLength, StandardCharsets.US_ASCII);
+            int length = dbf.get(pos + 16) & 0xFF;
+
+            fields.put(name, new int[] {fieldOffset, length});
+            fieldNames.add(name);
+            fieldOffset += length;
+        }
+    }
+
+    public static ShapefileReader open(File shpFile) throws IOException {
+        return new ShapefileReader(shpFile);
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Decodes the polygon record at {@code index}.
+     *
+     * @return the record, or null for null shapes
+     */
+    public ShapeRecord readRecord(int index) throws IOException {
+        // .shx offsets are big-endian and counted in 16-bit words
+        int offset = shx.getInt(HEADER_LENGTH + index * 8) * 2;
+
+        ByteBuffer rec = shp.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        rec.position(offset + 8); // skip big-endian record header
+        int shapeType = rec.getInt();
+        if (shapeType == SHAPE_NULL) {
+            return null;
+        }
+        if (shapeType != SHAPE_POLYGON && shapeType != SHAPE_POLYGON_Z && shapeType != SHAPE_POLYGON_M) {
+            throw new IOException("Unsupported shape type " + shapeType + " in record " + index);
+        }
+
+        rec.position(rec.position() + 32); // skip bounding box
+        int numParts = rec.getInt();
+        int numPoints = rec.getInt();
+
+        int[] parts = new int[numParts];
+        rec.asIntBuffer().get(parts);
+        rec.position(rec.position() + numParts * Integer.BYTES);
+
+        // Z and M values follow the XY block and are ignored
+        double[] coords = new double[numPoints * 2];
+        rec.asDoubleBuffer().get(coords);
+        return new ShapeRecord(parts, coords);
+    }
+
+    /**
+     * Builds a MultiPolygon from the record at {@code index}, treating clockwise rings as
+     * shells and counter-clockwise rings as holes, as the shapefile spec defines.
+     *
+     * @return the geometry, or null for null shapes
+     */
+    public Geometry readGeometry(int index) throws IOException {
+        ShapeRecord record = readRecord(index);
+        if (record == null) {
+            return null;
+        }
+
+        List<LinearRing> shells = new ArrayList<>();
+        List<LinearRing> holes = new ArrayList<>();
+        for (int part = 0; part < record.partCount(); part++) {
+            LinearRing ring = toRing(record, part);
+            if (ring == null) continue;
+
+            if (Orientation.isCCW(ring.getCoordinates())) {
+                holes.add(ring);
+            } else {
+                shells.add(ring);
+            }
+        }
+
+        List<List<LinearRing>> holesByShell = new ArrayList<>();
+        for (int i = 0; i < shells.size(); i++) {
+            holesByShell.add(new ArrayList<>());
+        }
+        for (LinearRing hole : holes) {
+            int shell = findShell(shells, hole);
+            if (shell >= 0) {
+                holesByShell.get(shell).add(hole);
+            } else {
+                // Orphan holes are really mis-wound shells
+                shells.add(geometryFactory.createLinearRing(hole.reverse().getCoordinates()));
+                holesByShell.add(new ArrayList<>());
+            }
+        }
+
+        Polygon[] polygons = new Polygon[shells.size()];
+        for (int i = 0; i < shells.size(); i++) {
+            polygons[i] = geometryFactory.createPolygon(shells.get(i),
+                    holesByShell.get(i).toArray(new LinearRing[0]));
+        }
+        return geometryFactory.createMultiPolygon(polygons);
+    }
+
+    /** Returns a trimmed text attribute, or null if the field does not exist or is blank. */
+    public String readAttribute(int index, String field) {
+        int[] f = fields.get(field);
+        if (f == null) {
+            return null;
+        }
+        byte[] bytes = new byte[f[1]];
+        dbf.duplicate().position(dbfHeaderLength + index * dbfRecordLength + f[0]).get(bytes);
+        String value = new String(bytes, charset).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /** Returns the projection definition from the .prj next to the shapefile, or null. */
+    public static String readProjection(File shpFile) {
+        File prj = new File(shpFile.getPath().replaceAll("\\.shp$", ".prj"));
+        try {
+            return prj.isFile() ? Files.readString(prj.toPath()).trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private LinearRing toRing(ShapeRecord record, int part) {
+        int start = record.partStart(part);
+        int end = record.partEnd(part);
+        if (end - start < 3) {
+            return null;
+        }
+
+        boolean closed = record.coords[start * 2] == record.coords[(end - 1) * 2]
+                && record.coords[start * 2 + 1] == record.coords[(end - 1) * 2 + 1];
+        Coordinate[] ring = new Coordinate[end - start + (closed ? 0 : 1)];
+        for (int i = start; i < end; i++) {
+            ring[i - start] = new Coordinate(record.coords[i * 2], record.coords[i * 2 + 1]);
+        }
+        if (!closed) {
+            ring[ring.length - 1] = ring[0].copy();
+        }
+        return ring.length < 4 ? null : geometryFactory.createLinearRing(ring);
+    }
+
+    private int findShell(List<LinearRing> shells, LinearRing hole) {
+        // Smallest shell whose envelope and ring contain the hole
+        int best = -1;
+        double bestArea = Double.MAX_VALUE;
+        Coordinate probe = hole.getCoordinateN(0);
+        for (int i = 0; i < shells.size(); i++) {
+            LinearRing shell = shells.get(i);
+            if (!shell.getEnvelopeInternal().contains(hole.getEnvelopeInternal())) continue;
+            if (!PointLocation.isInRing(probe, shell.getCoordinates())) continue;
+
+            double area = shell.getEnvelopeInternal().getArea();
+            if (area < bestArea) {
+                best = i;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Charset readCharset(File cpg) {
+        try {
+            if (cpg.isFile()) {
+                return Charset.forName(Files.readString(cpg.toPath()).trim());
+            }
+        } catch (Exception e) {
+            System.err.println("Unreadable code page file, using ISO-8859-1: " + e.getMessage());
+        }
+        return StandardCharsets.ISO_8859_1;
+    }
+}
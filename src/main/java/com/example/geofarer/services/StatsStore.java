@@ -0,0 +1,419 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.Constants;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local game statistics: an append-only log of fixed 20-byte answer records plus
+ * running aggregates kept in memory, so the stats screen never rescans the log.
+ * <p>
+ * Record layout (big-endian): timestamp millis (long), target country (short),
+ * clicked country (short, -1 for none), latency millis (int), score (int).
+ * <p>
+ * The aggregates are periodically written to a snapshot that remembers how much of the
+ * log it covers; opening the store reads the snapshot and replays only the log tail
+ * through a memory-mapped buffer. Once the tail grows past
+ * {@link Constants#STATS_COMPACT_RECORDS} the log is folded into the snapshot and truncated.
+ * <p>
+ * Records refer to countries by load order index, so the snapshot also stores the country
+ * names those indexes meant. The store always opens with a snapshot for the current names;
+ * when the country data changes order, the aggregates are moved to the new indexes by name
+ * and the log, written against the old order, is folded in and emptied.
+ */
+public class StatsStore {
+    public static final int RECORD_BYTES = 20;
+
+    private static final int MAGIC = 0x47454F54; // "GEOT"
+    private static final int VERSION = 2;
+
+    private static StatsStore shared;
+
+    private final File snapshotFile;
+    private final List<String> countryNames;
+    private final FileChannel log;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BYTES);
+
+    // Aggregates, indexed by target country
+    private int[] attempts = new int[0];
+    private int[] correct = new int[0];
+    private long[] latencyMillis = new long[0];
+    private long[] scores = new long[0];
+    private long totalAnswers;
+    private long totalCorrect;
+    private long totalLatencyMillis;
+    private long totalScore;
+
+    private long snapshotOffset;
+    private int recordsSinceSnapshot;
+    // Set when the log was emptied but the snapshot on disk still covers its old length
+    private boolean snapshotStale;
+
+    /** Per-country totals as shown on the stats screen. */
+    public record CountryStats(int country, int attempts, int correct, long latencyMillis, long score) {
+        public double accuracy() {
+            return attempts == 0 ? 0 : (double) correct / attempts;
+        }
+
+        public double meanLatencyMillis() {
+            return attempts == 0 ? 0 : (double) latencyMillis / attempts;
+        }
+
+        public double meanScore() {
+            return attempts == 0 ? 0 : (double) score / attempts;
+        }
+    }
+
+    /**
+     * The store under the user's Geofarer directory, opened on first use.
+     *
+     * @param countries the loaded country list, whose order the recorded indexes refer to
+     */
+    public static synchronized StatsStore shared(List<MapService.FeatureInfo> countries) throws IOException {
+        if (shared == null) {
+            File dir = new File(Constants.STATS_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create stats directory: " + dir.getAbsolutePath());
+            }
+            List<String> names = new ArrayList<>(countries.size());
+            for (MapService.FeatureInfo fi : countries) {
+                names.add(fi.name);
+            }
+            shared = open(new File(dir, "answers.log"), new File(dir, "answers.snapshot"), names);
+        }
+        return shared;
+    }
+
+    /** Closes the shared store if it was opened, saving the aggregates. Called on application exit. */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            try {
+                shared.close();
+            } catch (IOException e) {
+                System.err.println("Could not close stats store: " + e.getMessage());
+            }
+            shared = null;
+        }
+    }
+
+    /**
+     * @param countryNames names of the countries in load order, the indexes records refer to
+     */
+    public static StatsStore open(File logFile, File snapshotFile, List<String> countryNames) throws IOException {
+        return new StatsStore(logFile, snapshotFile, countryNames);
+    }
+
+    private StatsStore(File logFile, File snapshotFile, List<String> countryNames) throws IOException {
+        this.snapshotFile = snapshotFile;
+        this.countryNames = List.copyOf(countryNames);
+        this.log = FileChannel.open(logFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long start = System.nanoTime();
+        List<String> snapshotNames = readSnapshot();
+
+        long size = log.size();
+        boolean offsetReset = snapshotOffset > size;
+        if (offsetReset) {
+            // Crashed after truncating a compacted log but before rewriting the snapshot
+            snapshotOffset = 0;
+        }
+        // Drop a torn record left by a crash mid-append
+        long complete = size - (size - snapshotOffset) % RECORD_BYTES;
+        if (complete < size) {
+            log.truncate(complete);
+        }
+        // The log tail was written against the snapshot's country order, so replay it before remapping
+        int replayed = replay(snapshotOffset, complete);
+        log.position(complete);
+
+        System.out.println("Opened stats store with " + totalAnswers + " answers (" + replayed +
+                " replayed from log) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        if (snapshotNames != null && !snapshotNames.equals(this.countryNames)) {
+            System.out.println("Country data changed since the stats were recorded, remapping them by name");
+            remap(snapshotNames);
+            compact();
+        } else if (snapshotNames == null || offsetReset) {
+            // Pin the country order the log is about to be written against, and persist the offset
+            writeSnapshot(complete);
+            recordsSinceSnapshot = 0;
+        } else if (recordsSinceSnapshot >= Constants.STATS_COMPACT_RECORDS) {
+            compact();
+        }
+    }
+
+    /** Appends one answer and folds it into the aggregates. */
+    public synchronized void record(long timestampMillis, int target, int clicked, int latencyMillis, int score)
+            throws IOException {
+        if (snapshotStale) {
+            // Appending now would put records below the stale offset, where a reopen skips them
+            writeSnapshot(log.size());
+            snapshotStale = false;
+        }
+        recordBuffer.clear();
+        recordBuffer.putLong(timestampMillis)
+                .putShort((short) target)
+                .putShort((short) clicked)
+                .putInt(latencyMillis)
+                .putInt(score)
+                .flip();
+        while (recordBuffer.hasRemaining()) {
+            log.write(recordBuffer);
+        }
+        apply(target, clicked, latencyMillis, score);
+
+        if (++recordsSinceSnapshot >= Constants.STATS_COMPACT_RECORDS) {
+            compact();
+        }
+    }
+
+    public synchronized long getTotalAnswers() {
+        return totalAnswers;
+    }
+
+    public synchronized double getAccuracy() {
+        return totalAnswers == 0 ? 0 : (double) totalCorrect / totalAnswers;
+    }
+
+    public synchronized double getMeanLatencyMillis() {
+        return totalAnswers == 0 ? 0 : (double) totalLatencyMillis / totalAnswers;
+    }
+
+    public synchronized long getTotalScore() {
+        return totalScore;
+    }
+
+    /** Countries that have been asked at least once, in index order. */
+    public synchronized List<CountryStats> getCountryStats() {
+        List<CountryStats> result = new ArrayList<>();
+        for (int c = 0; c < attempts.length; c++) {
+            if (attempts[c] > 0) {
+                result.add(new CountryStats(c, attempts[c], correct[c], latencyMillis[c], scores[c]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the aggregates to the snapshot and empties the log. The snapshot is first
+     * written to cover the whole log, so a crash at any point leaves a consistent state.
+     */
+    public synchronized void compact() throws IOException {
+        long size = log.size();
+        log.force(false);
+        writeSnapshot(size);
+        recordsSinceSnapshot = 0;
+        try {
+            log.truncate(0);
+        } catch (IOException e) {
+            // Some platforms refuse to truncate while the replay mapping is still alive;
+            // the snapshot already covers the log, so the next compaction retries
+            System.err.println("Could not truncate stats log, keeping it for now: " + e.getMessage());
+            return;
+        }
+        log.position(0);
+        snapshotOffset = 0;
+        try {
+            writeSnapshot(0);
+            System.out.println("Compacted stats log (" + size / RECORD_BYTES + " records) into " + snapshotFile);
+        } catch (IOException e) {
+            // Until it is rewritten, a reopen treats the stale offset past the end of the log as 0
+            snapshotStale = true;
+            System.err.println("Could not update stats snapshot after compaction: " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (log.isOpen()) {
+            writeSnapshot(log.size());
+            log.close();
+        }
+    }
+
+    private void apply(int target, int clicked, int latency, int score) {
+        if (target < 0) {
+            return;
+        }
+        ensureCapacity(target + 1);
+        attempts[target]++;
+        latencyMillis[target] += latency;
+        scores[target] += score;
+        if (clicked == target) {
+            correct[target]++;
+            totalCorrect++;
+        }
+        totalAnswers++;
+        totalLatencyMillis += latency;
+        totalScore += score;
+    }
+
+    /** Moves the per-country aggregates from the snapshot's country order to the current one. */
+    private void remap(List<String> snapshotNames) {
+        Map<String, Integer> current = new HashMap<>();
+        for (int c = countryNames.size() - 1; c >= 0; c--) {
+            current.put(countryNames.get(c), c);
+        }
+
+        int[] oldAttempts = attempts;
+        int[] oldCorrect = correct;
+        long[] oldLatency = latencyMillis;
+        long[] oldScores = scores;
+        attempts = new int[countryNames.size()];
+        correct = new int[countryNames.size()];
+        latencyMillis = new long[countryNames.size()];
+        scores = new long[countryNames.size()];
+
+        // Countries no longer in the data lose their own row but stay in the totals
+        for (int c = 0; c < oldAttempts.length && c < snapshotNames.size(); c++) {
+            Integer to = current.get(snapshotNames.get(c));
+            if (to != null && oldAttempts[c] > 0) {
+                attempts[to] += oldAttempts[c];
+                correct[to] += oldCorrect[c];
+                latencyMillis[to] += oldLatency[c];
+                scores[to] += oldScores[c];
+            }
+        }
+    }
+
+    private void ensureCapacity(int countries) {
+        if (attempts.length >= countries) {
+            return;
+        }
+        int size = Math.max(countries, attempts.length * 2);
+        attempts = Arrays.copyOf(attempts, size);
+        correct = Arrays.copyOf(correct, size);
+        latencyMillis = Arrays.copyOf(latencyMillis, size);
+        scores = Arrays.copyOf(scores, size);
+    }
+
+    private int replay(long from, long to) throws IOException {
+        if (to <= from) {
+            return 0;
+        }
+        MappedByteBuffer buffer = log.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int records = 0;
+        while (buffer.remaining() >= RECORD_BYTES) {
+            buffer.getLong(); // timestamp, not aggregated
+            short target = buffer.getShort();
+            short clicked = buffer.getShort();
+            int latency = buffer.getInt();
+            int score = buffer.getInt();
+            apply(target, clicked, latency, score);
+            records++;
+        }
+        recordsSinceSnapshot = records;
+        return records;
+    }
+
+    /** @return the country names the snapshot's indexes refer to, or null if there is no usable snapshot */
+    private List<String> readSnapshot() throws IOException {
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 52 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                System.err.println("Ignoring unreadable stats snapshot: " + snapshotFile);
+                return null;
+            }
+            long offset = buffer.getLong();
+            long answers = buffer.getLong();
+            long correctAnswers = buffer.getLong();
+            long latency = buffer.getLong();
+            long score = buffer.getLong();
+            int countries = buffer.getInt();
+            if (buffer.remaining() < (long) countries * 24 + 4) {
+                System.err.println("Ignoring truncated stats snapshot: " + snapshotFile);
+                return null;
+            }
+            int[] snapshotAttempts = new int[countries];
+            int[] snapshotCorrect = new int[countries];
+            long[] snapshotLatency = new long[countries];
+            long[] snapshotScores = new long[countries];
+            for (int c = 0; c < countries; c++) {
+                snapshotAttempts[c] = buffer.getInt();
+                snapshotCorrect[c] = buffer.getInt();
+                snapshotLatency[c] = buffer.getLong();
+                snapshotScores[c] = buffer.getLong();
+            }
+            List<String> names = readNames(buffer);
+            if (names == null) {
+                System.err.println("Ignoring truncated stats snapshot: " + snapshotFile);
+                return null;
+            }
+
+            attempts = snapshotAttempts;
+            correct = snapshotCorrect;
+            latencyMillis = snapshotLatency;
+            scores = snapshotScores;
+            snapshotOffset = offset;
+            totalAnswers = answers;
+            totalCorrect = correctAnswers;
+            totalLatencyMillis = latency;
+            totalScore = score;
+            return names;
+        }
+    }
+
+    private static List<String> readNames(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> names = new ArrayList<>(Math.max(0, Math.min(count, buffer.remaining() / 4)));
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < 4) {
+                return null;
+            }
+            int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return buffer.hasRemaining() ? null : names;
+    }
+
+    private void writeSnapshot(long logOffset) throws IOException {
+        File tmp = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(logOffset);
+            out.writeLong(totalAnswers);
+            out.writeLong(totalCorrect);
+            out.writeLong(totalLatencyMillis);
+            out.writeLong(totalScore);
+            out.writeInt(attempts.length);
+            for (int c = 0; c < attempts.length; c++) {
+                out.writeInt(attempts[c]);
+                out.writeInt(correct[c]);
+                out.writeLong(latencyMillis[c]);
+                out.writeLong(scores[c]);
+            }
+            out.writeInt(countryNames.size());
+            for (String name : countryNames) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        snapshotOffset = logOffset;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.geofarer.services;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Size-bounded LRU cache of decoded pyramid tiles. Tiles are cut and decoded on background
+ * threads; the callback passed to {@link #getTile} runs on the FX thread once a tile is ready.
+ */
+public class TileCache {
+    // A couple of threads keep a pan responsive without every visible tile decoding at once
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "tile-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TilePyramid pyramid;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Image> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Long> pending = new HashSet<>();
+    private long usedBytes = 0;
+
+    public TileCache(TilePyramid pyramid, long maxBytes) {
+        this.pyramid = pyramid;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the tile image if it is cached, otherwise starts loading it in the background.
+     *
+     * @return the decoded tile, or null while it is loading; {@code onLoaded} is called when it is ready
+     */
+    public synchronized Image getTile(int level, int x, int y, Runnable onLoaded) {
+        long key = ((long) level << 48) | ((long) x << 24) | y;
+        Image tile = tiles.get(key);
+        if (tile != null || !pending.add(key)) {
+            return tile;
+        }
+
+        LOADER.execute(() -> {
+            Image loaded = null;
+            try {
+                loaded = new Image(pyramid.tile(level, x, y).toURI().toString());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not load map tile " + level + "/" + x + "_" + y + ": " + e.getMessage());
+            }
+            boolean ready = loaded != null && !loaded.isError();
+            synchronized (this) {
+                pending.remove(key);
+                if (ready) {
+                    tiles.put(key, loaded);
+                    usedBytes += tileBytes(level, x, y);
+                    evict();
+                }
+            }
+            // A failed tile is retried on the next redraw the user causes, not in a loop
+            if (ready) {
+                Platform.runLater(onLoaded);
+            }
+        });
+        return null;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void evict() {
+        // Always keep the newest tile, even if a single tile exceeds the budget
+        Iterator<Map.Entry<Long, Image>> it = tiles.entrySet().iterator();
+        while (usedBytes > maxBytes && tiles.size() > 1 && it.hasNext()) {
+            Map.Entry<Long, Image> eldest = it.next();
+            long key = eldest.getKey();
+            int level = (int) (key >>> 48);
+            int x = (int) ((key >>> 24) & 0xFFFFFF);
+            int y = (int) (key & 0xFFFFFF);
+            usedBytes -= tileBytes(level, x, y);
+            it.remove();
+        }
+    }
+
+    private long tileBytes(int level, int x, int y) {
+        int width = Math.min(TilePyramid.TILE_SIZE, pyramid.levelWidth(level) - x * TilePyramid.TILE_SIZE);
+        int height = Math.min(TilePyramid.TILE_SIZE, pyramid.levelHeight(level) - y * TilePyramid.TILE_SIZE);
+        return (long) width * height * 4;
+    }
+}
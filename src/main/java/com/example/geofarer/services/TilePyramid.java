@@ -0,0 +1,133 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.CacheFiles;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 256px PNG tiles of the world raster at several zoom levels, kept in the cache directory.
+ * Level {@link #getMaxLevel()} is the full-resolution raster and each level below halves it,
+ * down to a level that fits in a couple of tiles. A tile is cut from the raster the first
+ * time it is asked for, reading only its own region, so opening the pyramid is cheap and
+ * the full raster is never held in memory.
+ */
+public class TilePyramid {
+    public static final int TILE_SIZE = 256;
+
+    private final File rasterFile;
+    private final File dir;
+    private final int fullWidth;
+    private final int fullHeight;
+    private final int maxLevel;
+
+    private TilePyramid(File rasterFile, File dir, int fullWidth, int fullHeight) {
+        this.rasterFile = rasterFile;
+        this.dir = dir;
+        this.fullWidth = fullWidth;
+        this.fullHeight = fullHeight;
+
+        int level = 0;
+        while ((fullWidth >> level) > TILE_SIZE * 2) {
+            level++;
+        }
+        this.maxLevel = level;
+    }
+
+    /** Opens the tile pyramid for a raster; only the raster header is read. */
+    public static TilePyramid open(File rasterFile) throws IOException {
+        // The raster is too large to hash on every launch, so size and timestamp identify it
+        String key = Long.toHexString(rasterFile.length()) + "-" + Long.toHexString(rasterFile.lastModified());
+        File dir = CacheFiles.cacheFile("tiles-" + key);
+
+        ImageReader reader = RasterFiles.openReader(rasterFile);
+        try {
+            return new TilePyramid(rasterFile, dir, reader.getWidth(0), reader.getHeight(0));
+        } finally {
+            RasterFiles.close(reader);
+        }
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public int levelWidth(int level) {
+        return (int) Math.ceil(fullWidth / (double) (1 << (maxLevel - level)));
+    }
+
+    public int levelHeight(int level) {
+        return (int) Math.ceil(fullHeight / (double) (1 << (maxLevel - level)));
+    }
+
+    public int tilesX(int level) {
+        return (levelWidth(level) + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    public int tilesY(int level) {
+        return (levelHeight(level) + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /** Lowest level with at least the requested number of raster pixels per degree of longitude. */
+    public int levelFor(double pixelsPerDegree) {
+        for (int level = 0; level < maxLevel; level++) {
+            if (levelWidth(level) / 360.0 >= pixelsPerDegree) {
+                return level;
+            }
+        }
+        return maxLevel;
+    }
+
+    /**
+     * Returns the tile's PNG file, cutting it from the raster first if it is not cached yet.
+     * Safe to call from several threads; a tile cut twice is simply written twice.
+     */
+    public File tile(int level, int x, int y) throws IOException {
+        File file = new File(dir, level + "/" + x + "_" + y + ".png");
+        if (file.isFile()) {
+            return file;
+        }
+
+        // Lower levels subsample while reading, so no tile needs more than its own source region
+        int subsampling = 1 << (maxLevel - level);
+        int x0 = x * TILE_SIZE * subsampling;
+        int y0 = y * TILE_SIZE * subsampling;
+        if (x0 >= fullWidth || y0 >= fullHeight) {
+            throw new IllegalArgumentException("No tile " + x + "," + y + " at level " + level);
+        }
+
+        BufferedImage tile;
+        ImageReader reader = RasterFiles.openReader(rasterFile);
+        try {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle(x0, y0,
+                    Math.min(TILE_SIZE * subsampling, fullWidth - x0),
+                    Math.min(TILE_SIZE * subsampling, fullHeight - y0)));
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            tile = reader.read(0, param);
+        } finally {
+            RasterFiles.close(reader);
+        }
+
+        // Written aside and moved into place so readers never see a partial tile
+        File levelDir = file.getParentFile();
+        if (!levelDir.isDirectory() && !levelDir.mkdirs()) {
+            throw new IOException("Could not create tile directory: " + levelDir.getAbsolutePath());
+        }
+        File tmp = File.createTempFile("tile", ".tmp", levelDir);
+        try {
+            ImageIO.write(tile, "png", tmp);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        return file;
+    }
+}
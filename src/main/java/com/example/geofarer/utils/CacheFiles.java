@@ -0,0 +1,95 @@
+package com.example.geofarer.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/** Helpers for the local cache directory that holds derived map data. */
+public class CacheFiles {
+
+    /** System property that overrides {@link Constants#CACHE_DIR}, e.g. for benchmark runs. */
+    public static final String CACHE_DIR_PROPERTY = "geofarer.cache.dir";
+
+    /** Bytes in the header every cache file starts with: magic, format version, source hash. */
+    public static final int HEADER_BYTES = 16;
+
+    /** Writes the part of a cache file that follows the header. */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /** Returns the cache directory, creating it if needed. */
+    public static File cacheDir() throws IOException {
+        File dir = new File(System.getProperty(CACHE_DIR_PROPERTY, Constants.CACHE_DIR));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create cache directory: " + dir.getAbsolutePath());
+        }
+        return dir;
+    }
+
+    /** Returns a file inside the cache directory. */
+    public static File cacheFile(String name) throws IOException {
+        return new File(cacheDir(), name);
+    }
+
+    /**
+     * Writes a cache file: the header, then the body. It is written to a temporary file
+     * and moved into place, so readers never see a partly written file.
+     */
+    public static void write(File file, int magic, int version, long sourceHash, BodyWriter body)
+            throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            out.writeLong(sourceHash);
+            body.write(out);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Memory-maps a cache file written by {@link #write} and checks its header.
+     * The mapping stays valid after the file is closed.
+     *
+     * @return the mapping positioned after the header, or null if the file is missing or
+     *         was written with another format, version or source hash
+     */
+    public static MappedByteBuffer map(File file, int magic, int version, long sourceHash) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != magic || buffer.getInt() != version
+                || buffer.getLong() != sourceHash) {
+            return null;
+        }
+        return buffer;
+    }
+
+    /**
+     * Content hash of the given source files, used to detect when cached data
+     * was derived from different inputs.
+     */
+    public static long hash(File... files) throws IOException {
+        CRC32 crc = new CRC32();
+        for (File file : files) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -5,6 +5,11 @@ public class Constants {
     public static final String RASTER_PATH = "src/main/resources/naturalearth/NE1_50M_SR_W/NE1_50M_SR_W.tif";
     public static final String SHAPEFILE_PATH = "src/main/resources/naturalearth/ne_50m_admin_0_countries/ne_50m_admin_0_countries.shp";
 
+    // Derived data cache (lookup grids etc.), rebuilt when the source files change
+    public static final String CACHE_DIR = System.getProperty("user.home") + "/.geofarer/cache";
+    // Player statistics (answer log and aggregate snapshot)
+    public static final String STATS_DIR = System.getProperty("user.home") + "/.geofarer/stats";
+
     // UI Constants
     public static final double MAP_AREA_FACTOR = 0.90;
     public static final int DEFAULT_WINDOW_WIDTH = 1200;
@@ -19,9 +24,30 @@ public class Constants {
     // Game Constants
     public static final int POINTS_PER_CORRECT_ANSWER = 100;
     public static final int TIME_LIMIT_SECONDS = 30;
+    // Distance from the target country at which a click stops earning points
+    public static final double SCORING_ZERO_POINTS_KM = 2000;
+    // Answers appended to the stats log before it is folded into the aggregate snapshot
+    public static final int STATS_COMPACT_RECORDS = 10_000;
 
     // Performance constants
     public static final boolean USE_BACKGROUND_LOADING = true;
     public static final double MAP_STROKE_WIDTH_FACTOR = 0.4;
     public static final double MIN_STROKE_WIDTH = 0.2;
+    // Simplification tolerances in degrees for the render level-of-detail pyramid, finest first.
+    // Level 0 is the hit-testing geometry itself, simplified at most by the first tolerance.
+    public static final double[] LOD_TOLERANCES = {0.01, 0.03, 0.08, 0.2};
+    // Memory budget for size-specific decodes of the world raster
+    public static final long RASTER_CACHE_BYTES = 96L * 1024 * 1024;
+    // Memory budget for decoded raster tiles in the tiled map view
+    public static final long TILE_CACHE_BYTES = 64L * 1024 * 1024;
+    // Output rows decoded per ImageIO read when the raster is copied straight into a pixel buffer
+    public static final int RASTER_DECODE_BAND_ROWS = 256;
+    // Cell size in degrees of the country lookup grid used for click resolution
+    public static final double LOOKUP_GRID_RESOLUTION = 0.1;
+    // Countries closer than this many degrees count as neighbours, bridging gaps left by simplification
+    public static final double ADJACENCY_TOLERANCE = 0.02;
+    // Polygon parts whose projected bounding box is below this many pixels on both sides are not drawn
+    public static final double MIN_PART_PIXEL_SIZE = 1.0;
+    // Number of pulse frame times kept by the diagnostics overlay (toggled with F3 in the game view)
+    public static final int DIAGNOSTICS_FRAME_SAMPLES = 240;
 }
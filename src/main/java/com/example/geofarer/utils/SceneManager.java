@@ -1,17 +1,18 @@
 package com.example.geofarer.utils;
 
+import com.example.geofarer.diagnostics.SceneSwitchEvent;
 import com.example.geofarer.services.MapService;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
-import javafx.util.Duration;
+
+import java.util.function.BooleanSupplier;
 
 
 public class SceneManager {
@@ -29,6 +30,11 @@ public class SceneManager {
             return;
         }
         
+        SceneSwitchEvent switchEvent = new SceneSwitchEvent();
+        switchEvent.root = root.getClass().getSimpleName();
+        switchEvent.firstScene = primaryStage.getScene() == null;
+        switchEvent.begin();
+
         try {
             // Create loading overlay
             ProgressIndicator progress = new ProgressIndicator();
@@ -65,19 +71,14 @@ public class SceneManager {
                 primaryStage.setScene(scene);
                 primaryStage.centerOnScreen();
 
-                // Remove loading overlay after a short delay and force layout
-                Platform.runLater(() -> {
-                    Timeline layoutDelay = new Timeline(new KeyFrame(Duration.millis(500), evt -> {
-                        if (finalRoot instanceof StackPane) {
-                            ((StackPane) finalRoot).getChildren().remove(loadingOverlay);
-                        }
-                        // Force complete layout recalculation
-                        finalRoot.applyCss();
-                        finalRoot.autosize();
-                        finalRoot.requestLayout();
-                    }));
-                    layoutDelay.play();
+                // Remove loading overlay once the scene has been laid out
+                runOnLayoutPulse(scene, () -> finalRoot.getWidth() > 0 && finalRoot.getHeight() > 0, () -> {
+                    if (finalRoot instanceof StackPane) {
+                        ((StackPane) finalRoot).getChildren().remove(loadingOverlay);
+                    }
+                    finalRoot.requestLayout();
                 });
+                switchEvent.commit();
                 return;
             }
 
@@ -94,20 +95,15 @@ public class SceneManager {
                 System.out.println("SceneManager: Stage shown");
             }
             
-            // Remove loading overlay after a short delay
-            Platform.runLater(() -> {
-                Timeline removeOverlayDelay = new Timeline(new KeyFrame(Duration.millis(500), evt -> {
-                    if (finalRoot instanceof StackPane) {
-                        ((StackPane) finalRoot).getChildren().remove(loadingOverlay);
-                    }
-                    // Force complete layout recalculation
-                    finalRoot.applyCss();
-                    finalRoot.autosize();
-                    finalRoot.requestLayout();
-                    System.out.println("SceneManager: Loading overlay removed and layout requested");
-                }));
-                removeOverlayDelay.play();
+            // Remove loading overlay once the scene has been laid out
+            runOnLayoutPulse(scene, () -> finalRoot.getWidth() > 0 && finalRoot.getHeight() > 0, () -> {
+                if (finalRoot instanceof StackPane) {
+                    ((StackPane) finalRoot).getChildren().remove(loadingOverlay);
+                }
+                finalRoot.requestLayout();
+                System.out.println("SceneManager: Loading overlay removed and layout requested");
             });
+            switchEvent.commit();
             
         } catch (Exception e) {
             System.err.println("SceneManager: Exception during scene switch: " + e.getMessage());
@@ -115,20 +111,39 @@ public class SceneManager {
         }
     }
     public static void preloadResources() {
-        Task<Void> preloadTask = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                // Preload map image
-                mapService.loadRasterImage();
-
-                // Preload shapefile data
-                mapService.loadShapefileData();
+        // Views decode the raster for the screen size, so warm that variant
+        // Views that ask for the same data while this is running join these loads
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        mapService.loadRasterImageAsync(screen.getWidth(), screen.getHeight())
+                .exceptionally(e -> {
+                    System.err.println("Raster preload failed: " + e.getMessage());
+                    return null;
+                });
+        mapService.loadShapefileDataAsync()
+                .exceptionally(e -> {
+                    System.err.println("Shapefile preload failed: " + e.getMessage());
+                    return null;
+                });
+    }
 
-                return null;
+    /**
+     * Runs {@code action} in the first pulse of {@code scene} where {@code ready} holds,
+     * right after CSS and layout and before that frame is drawn.
+     */
+    public static void runOnLayoutPulse(Scene scene, BooleanSupplier ready, Runnable action) {
+        Runnable[] listener = new Runnable[1];
+        boolean[] done = {false};
+        listener[0] = () -> {
+            if (done[0] || !ready.getAsBoolean()) {
+                return;
             }
+            done[0] = true;
+            // The scene is iterating its listeners, so remove this one afterwards
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            action.run();
         };
-
-        new Thread(preloadTask).start();
+        scene.addPostLayoutPulseListener(listener[0]);
+        Platform.requestNextPulse();
     }
 
     public static Stage getPrimaryStage() {
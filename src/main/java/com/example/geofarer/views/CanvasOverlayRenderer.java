@@ -0,0 +1,162 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.PackedRings;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+
+/**
+ * Draws every country border into a single Canvas, one batched path per country,
+ * instead of adding a Polyline node per polygon part to the scene graph.
+ * Screen coordinates are projected once per display size and reused by later redraws.
+ */
+public class CanvasOverlayRenderer {
+    static final Color BORDER_COLOR = Color.rgb(0, 0, 0, 0.6);
+    static final Color HIGHLIGHT_COLOR = Color.rgb(230, 80, 20, 0.9);
+    static final double HIGHLIGHT_WIDTH_FACTOR = 2.5;
+
+    private final Canvas canvas = new Canvas();
+    // The highlighted country lives on its own layer so hover changes only redraw one outline
+    private final Canvas highlightCanvas = new Canvas();
+    private final Group layers = new Group(canvas, highlightCanvas);
+    private List<MapService.FeatureInfo> features = List.of();
+
+    // projected[country] holds interleaved x,y screen coordinates for all of its rings
+    private double[][] projected;
+    private double projectedW = -1;
+    private double projectedH = -1;
+    private int projectedLevel = -1;
+    private double strokeWidth = 1;
+    private int highlighted = -1;
+    private final PartCuller culler = new PartCuller();
+
+    public CanvasOverlayRenderer() {
+        layers.setMouseTransparent(true);
+    }
+
+    /** The node to add to the scene: the border canvas with the highlight layer above it. */
+    public Node getNode() {
+        return layers;
+    }
+
+    /** @param featureInfos the shared country list; it is read, never modified */
+    public void setFeatures(List<MapService.FeatureInfo> featureInfos) {
+        features = featureInfos;
+        projected = null;
+        highlighted = -1;
+    }
+
+    /**
+     * Outlines one country in the highlight colour, or clears the highlight when null.
+     * Only the highlight layer is redrawn.
+     */
+    public void setHighlight(MapService.FeatureInfo feature) {
+        // Feature indices are positions in the shared country list
+        highlighted = feature == null || feature.index >= features.size() ? -1 : feature.index;
+        drawHighlight();
+    }
+
+    /**
+     * Redraws all borders at the given display size.
+     *
+     * @param level level of detail to draw, see {@link MapService#lodLevelFor(double)}
+     * @return the number of polygon parts drawn; see {@link #getCulledParts()} for the ones skipped
+     */
+    public int render(double displayedW, double displayedH, double strokeWidth, int level) {
+        canvas.setWidth(displayedW);
+        canvas.setHeight(displayedH);
+
+        if (level != projectedLevel) {
+            // Different vertex counts, so the projection buffers cannot be reused
+            projected = null;
+        }
+        if (projected == null || displayedW != projectedW || displayedH != projectedH) {
+            project(displayedW, displayedH, level);
+        }
+
+        this.strokeWidth = strokeWidth;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, displayedW, displayedH);
+        gc.setStroke(BORDER_COLOR);
+        gc.setLineWidth(strokeWidth);
+
+        culler.begin(displayedW / 360.0, displayedH / 180.0);
+        int parts = 0;
+        for (int f = 0; f < features.size(); f++) {
+            parts += strokeFeature(gc, f, culler);
+        }
+
+        highlightCanvas.setWidth(displayedW);
+        highlightCanvas.setHeight(displayedH);
+        drawHighlight();
+        return parts;
+    }
+
+    private void drawHighlight() {
+        GraphicsContext gc = highlightCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, highlightCanvas.getWidth(), highlightCanvas.getHeight());
+        if (highlighted < 0 || projected == null) {
+            return;
+        }
+        gc.setStroke(HIGHLIGHT_COLOR);
+        gc.setLineWidth(strokeWidth * HIGHLIGHT_WIDTH_FACTOR);
+        // The hovered country is drawn whole, islands included
+        strokeFeature(gc, highlighted, null);
+    }
+
+    /** Parts skipped by the last {@link #render} as off-screen or smaller than a pixel. */
+    public int getCulledParts() {
+        return culler.getCulled();
+    }
+
+    /**
+     * Strokes the parts of one country as a single path.
+     *
+     * @param culler decides which parts to draw, or null to draw them all
+     * @return the number of parts drawn
+     */
+    private int strokeFeature(GraphicsContext gc, int f, PartCuller culler) {
+        PackedRings rings = features.get(f).packed(projectedLevel);
+        if (rings.ringCount() == 0) return 0;
+
+        double[] xy = projected[f];
+        int parts = 0;
+        gc.beginPath();
+        for (int r = 0; r < rings.ringCount(); r++) {
+            int start = rings.ringStart(r);
+            int end = rings.ringEnd(r);
+            if (culler != null ? !culler.accept(rings, r) : end - start < 2) continue;
+
+            gc.moveTo(xy[start * 2], xy[start * 2 + 1]);
+            for (int i = start + 1; i < end; i++) {
+                gc.lineTo(xy[i * 2], xy[i * 2 + 1]);
+            }
+            parts++;
+        }
+        gc.stroke();
+        return parts;
+    }
+
+    private void project(double displayedW, double displayedH, int level) {
+        if (projected == null) {
+            projected = new double[features.size()][];
+            for (int f = 0; f < features.size(); f++) {
+                projected[f] = new double[features.get(f).packed(level).pointCount() * 2];
+            }
+        }
+
+        // Reproject in place so resizes reuse the arrays built on the first pass
+        for (int f = 0; f < features.size(); f++) {
+            features.get(f).packed(level).project(displayedW, displayedH, projected[f]);
+        }
+
+        projectedW = displayedW;
+        projectedH = displayedH;
+        projectedLevel = level;
+    }
+}
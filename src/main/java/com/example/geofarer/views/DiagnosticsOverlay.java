@@ -0,0 +1,147 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.utils.Constants;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.scene.text.Font;
+
+import java.util.List;
+
+/**
+ * Live performance readout drawn over the map: pulse frame times, the cost of the
+ * last overlay render, node count under the overlay, debouncer activity and heap use.
+ * <p>
+ * Samples go into a preallocated ring buffer from the {@link AnimationTimer}, so
+ * measuring does not allocate per pulse. The label text is only rebuilt a few times
+ * a second, which keeps the readout from distorting the frame times it reports.
+ */
+public class DiagnosticsOverlay extends StackPane {
+    private static final long TEXT_REFRESH_NANOS = 250_000_000L;
+
+    private final Label text = new Label();
+    private final Parent measured;
+    private final Runtime runtime = Runtime.getRuntime();
+    private final StringBuilder sb = new StringBuilder(256);
+
+    // Ring buffer of pulse-to-pulse frame times in nanoseconds
+    private final long[] frameNanos = new long[Constants.DIAGNOSTICS_FRAME_SAMPLES];
+    private int frameHead = 0;
+    private int frameCount = 0;
+    private long lastPulse = 0;
+    private long lastTextRefresh = 0;
+
+    private long lastRenderNanos = 0;
+    private int debouncerTicks = 0;
+    private int debouncerRedraws = 0;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastPulse != 0) {
+                frameNanos[frameHead] = now - lastPulse;
+                frameHead = (frameHead + 1) % frameNanos.length;
+                if (frameCount < frameNanos.length) frameCount++;
+            }
+            lastPulse = now;
+
+            if (now - lastTextRefresh >= TEXT_REFRESH_NANOS) {
+                lastTextRefresh = now;
+                refreshText();
+            }
+        }
+    };
+
+    /**
+     * @param measured the node whose subtree is counted, normally the map overlay pane
+     */
+    public DiagnosticsOverlay(Parent measured) {
+        this.measured = measured;
+
+        text.setFont(Font.font("Monospaced", 12));
+        text.setStyle("-fx-text-fill: #0f0; -fx-background-color: rgba(0,0,0,0.7); -fx-padding: 6;");
+        getChildren().add(text);
+        StackPane.setAlignment(text, Pos.TOP_LEFT);
+        setPadding(new Insets(8));
+        setMouseTransparent(true);
+        setPickOnBounds(false);
+        setVisible(false);
+    }
+
+    /** Shows or hides the readout; the frame timer only runs while it is visible. */
+    public void setActive(boolean active) {
+        setVisible(active);
+        if (active) {
+            lastPulse = 0;
+            frameCount = 0;
+            frameHead = 0;
+            refreshText();
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+
+    public boolean isActive() {
+        return isVisible();
+    }
+
+    public void recordRender(long nanos) {
+        lastRenderNanos = nanos;
+    }
+
+    /**
+     * @param redraw whether this tick found a pending resize and scheduled a redraw
+     */
+    public void recordDebouncerTick(boolean redraw) {
+        debouncerTicks++;
+        if (redraw) debouncerRedraws++;
+    }
+
+    private void refreshText() {
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < frameCount; i++) {
+            long f = frameNanos[i];
+            sum += f;
+            if (f > max) max = f;
+        }
+        long last = frameCount == 0 ? 0 : frameNanos[(frameHead - 1 + frameNanos.length) % frameNanos.length];
+        double avgMs = frameCount == 0 ? 0 : sum / (double) frameCount / 1_000_000.0;
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        sb.setLength(0);
+        sb.append("frame  ").append(formatMs(last / 1_000_000.0))
+                .append(" ms  avg ").append(formatMs(avgMs))
+                .append(" ms  max ").append(formatMs(max / 1_000_000.0))
+                .append(" ms  (").append(frameCount).append(" pulses)\n");
+        sb.append("fps    ").append(avgMs > 0 ? Math.round(1000.0 / avgMs) : 0).append('\n');
+        sb.append("render ").append(formatMs(lastRenderNanos / 1_000_000.0)).append(" ms\n");
+        sb.append("nodes  ").append(countNodes(measured)).append('\n');
+        sb.append("debounce ").append(debouncerTicks).append(" ticks, ")
+                .append(debouncerRedraws).append(" redraws\n");
+        sb.append("heap   ").append(heapUsed / (1024 * 1024)).append(" / ")
+                .append(runtime.maxMemory() / (1024 * 1024)).append(" MB");
+        text.setText(sb.toString());
+    }
+
+    private static String formatMs(double ms) {
+        return String.format("%6.2f", ms);
+    }
+
+    private static int countNodes(Parent parent) {
+        List<Node> children = parent.getChildrenUnmodifiable();
+        int count = children.size();
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            if (child instanceof Parent) {
+                count += countNodes((Parent) child);
+            }
+        }
+        return count;
+    }
+}
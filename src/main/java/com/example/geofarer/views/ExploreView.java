@@ -0,0 +1,62 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.utils.SceneManager;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.text.Font;
+
+/** Free zoom and pan over the world raster, drawn from the tile pyramid by {@link TiledMapView}. */
+public class ExploreView extends BorderPane {
+
+    public ExploreView() {
+        initialiseView();
+    }
+
+    private void initialiseView() {
+        // Top bar with back button and title
+        HBox topBar = new HBox(10);
+        topBar.setAlignment(Pos.CENTER_LEFT);
+        topBar.setPadding(new Insets(12, 12, 8, 12));
+        topBar.setMinHeight(60);
+
+        Button backButton = new Button("Back");
+        backButton.setOnAction(e -> SceneManager.switchToScene(new LandingPageView()));
+
+        Label title = new Label("Explore the Map");
+        title.setFont(Font.font("System", 24));
+
+        Region spacerLeft = new Region();
+        HBox.setHgrow(spacerLeft, Priority.ALWAYS);
+        Region spacerRight = new Region();
+        HBox.setHgrow(spacerRight, Priority.ALWAYS);
+
+        topBar.getChildren().addAll(backButton, spacerLeft, title, spacerRight);
+
+        // Bottom bar
+        Label hintLabel = new Label("Scroll to zoom, drag to pan");
+        hintLabel.setFont(Font.font(14));
+        HBox bottomBar = new HBox(hintLabel);
+        bottomBar.setAlignment(Pos.CENTER);
+        bottomBar.setPadding(new Insets(8));
+        bottomBar.setMinHeight(40);
+
+        this.setTop(topBar);
+        this.setBottom(bottomBar);
+
+        // Opening the pyramid only reads the raster header; tiles are cut as they come into view
+        try {
+            this.setCenter(new TiledMapView(new MapService().loadTilePyramid()));
+        } catch (RuntimeException e) {
+            Label errorLabel = new Label("Could not open the map: " + e.getMessage());
+            errorLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
+            this.setCenter(errorLabel);
+        }
+    }
+}
@@ -1,52 +1,95 @@
 package com.example.geofarer.views;
 
 import com.example.geofarer.controllers.GameController;
+import com.example.geofarer.diagnostics.OverlayRenderEvent;
 import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.PackedRings;
 import com.example.geofarer.utils.Constants;
+import com.example.geofarer.utils.SceneManager;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.value.ChangeListener;
-import javafx.concurrent.Task;
+import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Polyline;
+import javafx.scene.transform.Scale;
 import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.util.Duration;
-import org.locationtech.jts.geom.*;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class GameView extends BorderPane {
+    /** How country borders are drawn over the raster. */
+    public enum OverlayRenderer {
+        /** One Polyline node per polygon part. */
+        POLYLINE,
+        /** All borders batched into a single Canvas. */
+        CANVAS
+    }
+
     private GameController controller;
     private MapService mapService;
 
-    // Map components
+    // Map components; the original size is the source raster's, whatever size it was decoded at
     private double imgWOrig = 0;
     private double imgHOrig = 0;
     private double aspectRatio = 1.0;
-    private final List<MapService.FeatureInfo> featureInfos = new ArrayList<>();
+    private List<MapService.FeatureInfo> featureInfos = List.of();
     private Label countryLabel;
+    private Label resultLabel;
+    private Label targetLabel;
     private Pane innerPane;
     private ImageView imageView;
     private Pane overlay;
+    private OverlayRenderer overlayRenderer = OverlayRenderer.CANVAS;
+    private final CanvasOverlayRenderer canvasRenderer = new CanvasOverlayRenderer();
+    private double[] projectionBuffer = new double[0];
+
+    // Polylines are built once per level of detail in degree space (360x180) and fitted
+    // to the overlay with a single Scale, so resizing only touches the transform
+    private final Group polylineGroup = new Group();
+    private final Scale polylineScale = new Scale(1, 1, 0, 0);
+    private final DoubleProperty polylineStrokeWidth = new SimpleDoubleProperty(1);
+    private int polylineLevel = -1;
+    // This view's polylines per country; the shared FeatureInfo objects are never modified
+    private final Map<MapService.FeatureInfo, List<Polyline>> countryShapes = new HashMap<>();
+    private final PartCuller polylineCuller = new PartCuller();
+
+    // Hover highlighting
+    private boolean hoverEnabled = true;
+    private MapService.FeatureInfo highlighted;
+    private DiagnosticsOverlay diagnostics;
     
-    // Add retry tracking
-    private int renderRetryCount = 0;
-    private static final int MAX_RENDER_RETRIES = 20;
+    // Readiness: the first frame renders in the first layout pulse with both data and real bounds
+    private boolean loadStarted = false;
+    private boolean dataLoaded = false;
+    private boolean renderScheduled = false;
+    private final CompletableFuture<Void> firstFrame = new CompletableFuture<>();
 
     public GameView() {
     this(false); // Default to immediate initialization
@@ -77,7 +120,10 @@ public class GameView extends BorderPane {
         Region spacerRight = new Region();
         HBox.setHgrow(spacerRight, Priority.ALWAYS);
 
-        topBar.getChildren().addAll(spacerLeft, title, spacerRight);
+        targetLabel = new Label();
+        targetLabel.setFont(Font.font("System", 18));
+
+        topBar.getChildren().addAll(spacerLeft, title, spacerRight, targetLabel);
 
         // Map frame
         StackPane mapFrame = new StackPane();
@@ -94,13 +140,21 @@ public class GameView extends BorderPane {
         overlay = new Pane();
         overlay.setPickOnBounds(false);
 
-        innerPane.getChildren().addAll(imageView, overlay);
-        mapFrame.getChildren().add(innerPane);
+        polylineGroup.getTransforms().add(polylineScale);
+        polylineGroup.setMouseTransparent(true);
+        overlay.widthProperty().addListener((obs, oldV, newV) -> fitPolylines());
+        overlay.heightProperty().addListener((obs, oldV, newV) -> fitPolylines());
 
-        // Bottom bar
-        countryLabel = new Label("Click on a country to see its name");
-        countryLabel.setFont(Font.font(14));
-        HBox bottomBar = new HBox(countryLabel);
+        innerPane.getChildren().addAll(imageView, overlay);
+        diagnostics = new DiagnosticsOverlay(overlay);
+        mapFrame.getChildren().addAll(innerPane, diagnostics);
+
+        // Bottom bar: the last click's result stays put while the hovered country changes beside it
+        resultLabel = new Label("Click on the country named above");
+        resultLabel.setFont(Font.font(14));
+        countryLabel = new Label();
+        countryLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+        HBox bottomBar = new HBox(30, resultLabel, countryLabel);
         bottomBar.setAlignment(Pos.CENTER);
         bottomBar.setPadding(new Insets(8));
         bottomBar.setStyle("-fx-background-color: rgba(255,255,255,0.95); -fx-border-color: #ddd;");
@@ -111,14 +165,18 @@ public class GameView extends BorderPane {
         this.setCenter(mapFrame);
         this.setBottom(bottomBar);
 
-        // Load and set up map image
-        Image raster = mapService.loadRasterImage();
+        // Load and set up map image, decoded for the largest window this screen allows
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        Image raster = mapService.loadRasterImage(screen.getWidth(), screen.getHeight());
         if (raster != null) {
-            imgWOrig = raster.getWidth();
-            imgHOrig = raster.getHeight();
+            // Border strokes scale with the source raster, so a smaller decode must not thicken them
+            int[] sourceSize = mapService.rasterSourceSize();
+            imgWOrig = sourceSize != null ? sourceSize[0] : raster.getWidth();
+            imgHOrig = sourceSize != null ? sourceSize[1] : raster.getHeight();
             aspectRatio = imgWOrig / imgHOrig;
             imageView.setImage(raster);
-            System.out.println("Loaded raster: " + imgWOrig + "x" + imgHOrig + ", aspect ratio: " + aspectRatio);
+            System.out.println("Loaded raster: " + raster.getWidth() + "x" + raster.getHeight() +
+                    " (original: " + imgWOrig + "x" + imgHOrig + "), aspect ratio: " + aspectRatio);
         } else {
             System.err.println("Failed to load raster image!");
             aspectRatio = 1.8; // Default aspect ratio for world map
@@ -128,11 +186,28 @@ public class GameView extends BorderPane {
         setupMapBindings(mapFrame, topBar, bottomBar);
 
         // Click handler
-        innerPane.addEventHandler(MouseEvent.MOUSE_CLICKED,
-                event -> controller.handleMapClick(event, innerPane.getWidth(), innerPane.getHeight(), featureInfos, countryLabel));
+        innerPane.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
+            controller.handleMapClick(event, innerPane.getWidth(), innerPane.getHeight(), resultLabel);
+            if (dataLoaded) {
+                nextTarget();
+            }
+        });
+
+        // Hover handler
+        innerPane.addEventHandler(MouseEvent.MOUSE_MOVED, event -> {
+            if (hoverEnabled && dataLoaded) {
+                setHighlight(controller.handleMapHover(event, innerPane.getWidth(), innerPane.getHeight(), countryLabel));
+            }
+        });
+        innerPane.addEventHandler(MouseEvent.MOUSE_EXITED, event -> {
+            controller.clearHover(countryLabel);
+            setHighlight(null);
+        });
     }
 
     private void loadMapData() {
+        loadStarted = true;
+
         // Show loading indicator
         ProgressIndicator progress = new ProgressIndicator();
         progress.setMaxSize(100, 100);
@@ -140,29 +215,26 @@ public class GameView extends BorderPane {
         loadingOverlay.setStyle("-fx-background-color: rgba(0,0,0,0.2);");
         this.getChildren().add(loadingOverlay);
 
-        // Load data in background thread
-        Task<List<MapService.FeatureInfo>> loadTask = new Task<>() {
-            @Override
-            protected List<MapService.FeatureInfo> call() {
-                return mapService.loadShapefileData();
-            }
-        };
-
-        loadTask.setOnSucceeded(event -> {
-            featureInfos.addAll(loadTask.getValue());
-            this.getChildren().remove(loadingOverlay);
-            // Force redraw of map overlays
-            Platform.runLater(() -> renderOverlays());
-        });
-
-        // Handle failure
-        loadTask.setOnFailed(event -> {
+        // Load data in the background, sharing the preload if it is still running
+        mapService.loadShapefileDataAsync().whenComplete((features, error) -> Platform.runLater(() -> {
             this.getChildren().remove(loadingOverlay);
-            showError("Failed to load map data: " + loadTask.getException().getMessage());
-        });
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                showError("Failed to load map data: " + cause.getMessage());
+                return;
+            }
+            featureInfos = features;
+            canvasRenderer.setFeatures(featureInfos);
+            dataLoaded = true;
+            nextTarget();
+            renderWhenReady();
+        }));
+    }
 
-        // Start loading
-        new Thread(loadTask).start();
+    /** Asks for a new country; each click is scored against the current one and recorded. */
+    private void nextTarget() {
+        MapService.FeatureInfo target = controller.nextTarget(featureInfos);
+        targetLabel.setText(target != null ? "Find: " + target.name : "");
     }
 
     private void showError(String message) {
@@ -299,7 +371,9 @@ public class GameView extends BorderPane {
         // Redraw overlays when display size changes with debouncing
         SimpleBooleanProperty needsRedraw = new SimpleBooleanProperty(false);
         Timeline debouncer = new Timeline(new KeyFrame(Duration.millis(100), e -> {
-            if (needsRedraw.get()) {
+            boolean redraw = needsRedraw.get();
+            diagnostics.recordDebouncerTick(redraw);
+            if (redraw) {
                 needsRedraw.set(false);
                 Platform.runLater(this::renderOverlays);
             }
@@ -318,92 +392,148 @@ public class GameView extends BorderPane {
 
         // Handle window state changes
         this.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removeEventFilter(KeyEvent.KEY_PRESSED, diagnosticsToggle);
+            }
             if (newScene != null) {
+                newScene.addEventFilter(KeyEvent.KEY_PRESSED, diagnosticsToggle);
                 Stage stage = (Stage) newScene.getWindow();
                 if (stage != null) {
-                    // Listen for window state changes
-                    stage.maximizedProperty().addListener((prop, wasMax, isMax) -> {
-                        Platform.runLater(() -> {
-                            this.requestLayout();
-                            Timeline layoutDelay = new Timeline(new KeyFrame(Duration.millis(200),
-                                    evt -> renderOverlays()));
-                            layoutDelay.play();
-                        });
-                    });
-                    
-                    // Add window shown listener to ensure proper initial sizing
-                    if (!stage.isShowing()) {
-                        stage.setOnShown(evt -> {
-                            Platform.runLater(() -> {
-                                this.requestLayout();
-                                // Allow more time for the initial render
-                                Timeline initialSizeDelay = new Timeline(
-                                    new KeyFrame(Duration.millis(100), e -> {
-                                        double w = this.getWidth();
-                                        double h = this.getHeight();
-                                        System.out.println("Initial layout complete: " + w + "x" + h);
-                                        renderOverlays();
-                                    })
-                                );
-                                initialSizeDelay.play();
-                            });
-                        });
-                    }
+                    // Size listeners redraw once the new layout settles
+                    stage.maximizedProperty().addListener((prop, wasMax, isMax) -> this.requestLayout());
                 }
+                renderWhenReady();
             }
         });
+    }
 
-        // Initial render after layout
-        Platform.runLater(() -> {
-            Timeline initialRender = new Timeline(new KeyFrame(Duration.millis(300),
-                    e -> renderOverlays()));
-            initialRender.play();
-        });
+    /**
+     * Completes once the map has been drawn for the first time, i.e. in the first layout
+     * pulse where the feature data is loaded and the overlay has real bounds.
+     */
+    public CompletableFuture<Void> firstFrameFuture() {
+        return firstFrame;
+    }
+
+    /** Schedules a render for the first layout pulse where data and layout bounds are both ready. */
+    private void renderWhenReady() {
+        if (renderScheduled || !dataLoaded || getScene() == null) {
+            return;
+        }
+        renderScheduled = true;
+        SceneManager.runOnLayoutPulse(getScene(),
+                () -> overlay.getWidth() > 1 && overlay.getHeight() > 1,
+                () -> {
+                    renderScheduled = false;
+                    renderOverlays();
+                    firstFrame.complete(null);
+                });
     }
 
-    /** Clear and redraw overlays (polylines) to match current overlay size and scale. */
+    private final EventHandler<KeyEvent> diagnosticsToggle = event -> {
+        if (event.getCode() == KeyCode.F3) {
+            setDiagnosticsVisible(!isDiagnosticsVisible());
+            event.consume();
+        }
+    };
+
+    /** Shows or hides the frame-time and render diagnostics over the map (also toggled with F3). */
+    public void setDiagnosticsVisible(boolean visible) {
+        diagnostics.setActive(visible);
+    }
+
+    public boolean isDiagnosticsVisible() {
+        return diagnostics.isActive();
+    }
+
+    public boolean isHoverEnabled() {
+        return hoverEnabled;
+    }
+
+    /** Turns highlighting of the country under the cursor on or off. */
+    public void setHoverEnabled(boolean hoverEnabled) {
+        this.hoverEnabled = hoverEnabled;
+        if (!hoverEnabled) {
+            controller.clearHover(countryLabel);
+            setHighlight(null);
+        }
+    }
+
+    /** Moves the highlight by restyling the existing shapes of the old and new country. */
+    private void setHighlight(MapService.FeatureInfo fi) {
+        if (fi == highlighted) {
+            return;
+        }
+        if (highlighted != null) {
+            for (Polyline p : shapesOf(highlighted)) {
+                p.setStroke(CanvasOverlayRenderer.BORDER_COLOR);
+            }
+        }
+        if (fi != null) {
+            for (Polyline p : shapesOf(fi)) {
+                p.setStroke(CanvasOverlayRenderer.HIGHLIGHT_COLOR);
+            }
+        }
+        highlighted = fi;
+        canvasRenderer.setHighlight(fi);
+    }
+
+    public OverlayRenderer getOverlayRenderer() {
+        return overlayRenderer;
+    }
+
+    /** Switch between Polyline nodes and the single Canvas for drawing borders. */
+    public void setOverlayRenderer(OverlayRenderer overlayRenderer) {
+        if (this.overlayRenderer != overlayRenderer) {
+            this.overlayRenderer = overlayRenderer;
+            renderOverlays();
+        }
+    }
+
+    /** Clear and redraw overlays (polylines or canvas) to match current overlay size and scale. */
     private void renderOverlays() {
         if (overlay == null || imgWOrig <= 0 || imgHOrig <= 0 || featureInfos.isEmpty()) {
             return;
         }
 
-        // Clear existing shapes from feature infos
-        for (MapService.FeatureInfo fi : featureInfos) {
-            fi.shapes.clear();
+        // Only the first successful render is recorded; later ones are resize redraws
+        OverlayRenderEvent event = firstFrame.isDone() ? null : new OverlayRenderEvent();
+        if (event != null) {
+            event.begin();
+        }
+        long renderStart = System.nanoTime();
+        int parts = drawOverlays();
+        diagnostics.recordRender(System.nanoTime() - renderStart);
+        if (event != null && parts >= 0) {
+            event.renderer = overlayRenderer.name();
+            event.width = overlay.getWidth();
+            event.height = overlay.getHeight();
+            event.lodLevel = MapService.lodLevelFor(pixelsPerDegree(overlay.getWidth(), overlay.getHeight()));
+            event.parts = parts;
+            event.commit();
         }
+    }
+
+    private double pixelsPerDegree(double displayedW, double displayedH) {
+        return Math.max(displayedW / 360.0, displayedH / 180.0);
+    }
 
+    /**
+     * @return number of polygon parts drawn, or -1 if the overlay was not ready
+     */
+    private int drawOverlays() {
         overlay.getChildren().clear();
 
         double displayedW = overlay.getWidth();
         double displayedH = overlay.getHeight();
 
         if (displayedW <= 1 || displayedH <= 1) {
-            renderRetryCount++;
-            System.out.println("Overlay dimensions not ready: " + displayedW + "x" + displayedH + 
-                             " (retry " + renderRetryCount + "/" + MAX_RENDER_RETRIES + ")");
-            
-            // Only retry if we haven't exceeded the limit
-            if (renderRetryCount < MAX_RENDER_RETRIES) {
-                Platform.runLater(() -> {
-                    Timeline retryRender = new Timeline(new KeyFrame(Duration.millis(500),
-                            e -> renderOverlays()));
-                    retryRender.play();
-                });
-            } else {
-                System.err.println("Failed to initialize overlay dimensions after " + MAX_RENDER_RETRIES + " retries");
-                // Force a layout update one more time
-                Platform.runLater(() -> {
-                    this.requestLayout();
-                    innerPane.requestLayout();
-                    overlay.requestLayout();
-                });
-            }
-            return;
+            // Not laid out yet; draw in the first pulse that gives the overlay real bounds
+            System.out.println("Overlay dimensions not ready: " + displayedW + "x" + displayedH);
+            renderWhenReady();
+            return -1;
         }
 
-        // Reset retry count on successful render
-        renderRetryCount = 0;
-        
         System.out.println("Rendering overlays: " + displayedW + "x" + displayedH +
                 " (original: " + imgWOrig + "x" + imgHOrig + ")");
 
@@ -411,86 +541,116 @@ public class GameView extends BorderPane {
         double scaleX = displayedW / imgWOrig;
         double scaleY = displayedH / imgHOrig;
 
-        System.out.println("Scale factors: X=" + scaleX + ", Y=" + scaleY);
+        // Coarsest geometry whose simplification error stays under a pixel at this size
+        int lodLevel = MapService.lodLevelFor(pixelsPerDegree(displayedW, displayedH));
+
+        System.out.println("Scale factors: X=" + scaleX + ", Y=" + scaleY + ", LOD level " + lodLevel);
+
+        double strokeWidth = strokeWidth(scaleX, scaleY);
+        if (overlayRenderer == OverlayRenderer.CANVAS) {
+            overlay.getChildren().add(canvasRenderer.getNode());
+            int parts = canvasRenderer.render(displayedW, displayedH, strokeWidth, lodLevel);
+            System.out.println("Rendered " + parts + " polygon parts to canvas, culled " +
+                    canvasRenderer.getCulledParts());
+            return parts;
+        }
+
+        if (lodLevel != polylineLevel) {
+            buildPolylines(lodLevel);
+        }
+        overlay.getChildren().add(polylineGroup);
+        fitPolylines();
+
+        System.out.println("Rendered " + polylineGroup.getChildren().size() + " polylines");
+        return polylineGroup.getChildren().size();
+    }
 
+    /**
+     * Rebuilds the degree-space polylines for a level of detail. Parts are culled at the
+     * largest scale this level is used for, so they stay correct while the transform grows.
+     */
+    private void buildPolylines(int lodLevel) {
+        polylineGroup.getChildren().clear();
+        double maxPixelsPerDegree = MapService.maxPixelsPerDegree(lodLevel);
+        polylineCuller.begin(maxPixelsPerDegree, maxPixelsPerDegree);
+        countryShapes.clear();
         for (MapService.FeatureInfo fi : featureInfos) {
-            Geometry g = fi.geom;
-            if (g == null) continue;
+            PackedRings rings = fi.packed(lodLevel);
+            if (rings.ringCount() == 0) continue;
 
-            if (g instanceof Polygon) {
-                Polyline p = polylineForPolygon((Polygon) g, scaleX, scaleY);
+            int required = rings.pointCount() * 2;
+            if (projectionBuffer.length < required) {
+                projectionBuffer = new double[required];
+            }
+            // Projecting to 360x180 gives x = lon + 180, y = 90 - lat
+            rings.project(360.0, 180.0, projectionBuffer);
+
+            for (int r = 0; r < rings.ringCount(); r++) {
+                if (!polylineCuller.accept(rings, r)) continue;
+                Polyline p = polylineForRing(projectionBuffer, rings.ringStart(r), rings.ringEnd(r));
                 if (p != null) {
-                    fi.shapes.add(p);
-                    overlay.getChildren().add(p);
+                    countryShapes.computeIfAbsent(fi, k -> new ArrayList<>()).add(p);
+                    polylineGroup.getChildren().add(p);
                 }
-            } else if (g instanceof MultiPolygon) {
-                MultiPolygon mp = (MultiPolygon) g;
-                for (int i = 0; i < mp.getNumGeometries(); i++) {
-                    Geometry part = mp.getGeometryN(i);
-                    if (part instanceof Polygon) {
-                        Polyline p = polylineForPolygon((Polygon) part, scaleX, scaleY);
-                        if (p != null) {
-                            fi.shapes.add(p);
-                            overlay.getChildren().add(p);
-                        }
-                    }
+            }
+            if (fi == highlighted) {
+                for (Polyline p : shapesOf(fi)) {
+                    p.setStroke(CanvasOverlayRenderer.HIGHLIGHT_COLOR);
                 }
             }
         }
-
-        System.out.println("Rendered " + overlay.getChildren().size() + " polylines");
+        polylineLevel = lodLevel;
+        System.out.println("Rebuilt polylines at LOD level " + lodLevel + ": drew " +
+                polylineCuller.getDrawn() + " parts, culled " + polylineCuller.getCulled());
     }
 
-    private Polyline polylineForPolygon(Polygon poly, double scaleX, double scaleY) {
-        Coordinate[] coords = poly.getExteriorRing().getCoordinates();
-        if (coords == null || coords.length == 0) return null;
+    private List<Polyline> shapesOf(MapService.FeatureInfo fi) {
+        return countryShapes.getOrDefault(fi, List.of());
+    }
 
-        List<Double> pts = new ArrayList<>(coords.length * 2);
-        for (Coordinate c : coords) {
-            double lon = c.x;
-            double lat = c.y;
+    /**
+     * Fits the degree-space polylines to the current overlay size. Stroke width is divided
+     * by the scale so borders keep the same on-screen thickness.
+     */
+    private void fitPolylines() {
+        double displayedW = overlay.getWidth();
+        double displayedH = overlay.getHeight();
+        if (polylineLevel < 0 || displayedW <= 1 || displayedH <= 1) {
+            return;
+        }
+        double sx = displayedW / 360.0;
+        double sy = displayedH / 180.0;
+        polylineScale.setX(sx);
+        polylineScale.setY(sy);
+        polylineStrokeWidth.set(strokeWidth(displayedW / imgWOrig, displayedH / imgHOrig) / Math.min(sx, sy));
+    }
 
-            // Transform geographic coordinates to image pixel coordinates
-            // Natural Earth raster is typically in geographic coordinates (-180 to 180, -90 to 90)
-            double x = ((lon + 180.0) / 360.0) * imgWOrig * scaleX;
-            double y = ((90.0 - lat) / 180.0) * imgHOrig * scaleY;
+    /** Builds a Polyline from points {@code start} until {@code end} of a projected x,y buffer. */
+    private Polyline polylineForRing(double[] xy, int start, int end) {
+        if (end <= start) return null;
 
-            pts.add(x);
-            pts.add(y);
+        // Polyline only accepts boxed points, so fill them in one bulk call
+        Double[] pts = new Double[(end - start) * 2];
+        for (int i = start * 2, j = 0; i < end * 2; i++, j++) {
+            pts[j] = xy[i];
         }
 
         Polyline pl = new Polyline();
-        pl.getPoints().addAll(pts);
-        pl.setStroke(Color.rgb(0, 0, 0, 0.6));
-        pl.setStrokeWidth(Math.max(Constants.MIN_STROKE_WIDTH,
-                Constants.MAP_STROKE_WIDTH_FACTOR * Math.min(scaleX, scaleY)));
+        pl.getPoints().setAll(pts);
+        pl.setStroke(CanvasOverlayRenderer.BORDER_COLOR);
+        pl.strokeWidthProperty().bind(polylineStrokeWidth);
         pl.setMouseTransparent(true);
         return pl;
     }
 
+    private double strokeWidth(double scaleX, double scaleY) {
+        return Math.max(Constants.MIN_STROKE_WIDTH,
+                Constants.MAP_STROKE_WIDTH_FACTOR * Math.min(scaleX, scaleY));
+    }
+
     public void initializeMap() {
-    if (featureInfos.isEmpty()) {
-        loadMapData();
-        
-        // Force proper layout calculation
-        this.applyCss();
-        this.layout();
-        
-        // Force a resize simulation after a short delay
-        javafx.animation.PauseTransition sizeDelay = new javafx.animation.PauseTransition(Duration.millis(500));
-        sizeDelay.setOnFinished(e -> {
-            // Simulate resize to force layout recalculation
-            if (this.getScene() != null) {
-                Stage stage = (Stage) this.getScene().getWindow();
-                if (stage != null) {
-                    // Force window to recalculate its layout
-                    double width = stage.getWidth();
-                    stage.setWidth(width + 1);
-                    stage.setWidth(width);
-                }
-            }
-        });
-        sizeDelay.play();
+        if (!loadStarted) {
+            loadMapData();
+        }
     }
-}
 }
\ No newline at end of file
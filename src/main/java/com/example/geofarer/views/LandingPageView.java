@@ -3,6 +3,7 @@ package com.example.geofarer.views;
 import com.example.geofarer.controllers.LandingPageController;
 import com.example.geofarer.services.MapService;
 import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
@@ -10,6 +11,7 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.Screen;
 
 public class LandingPageView extends StackPane {
     private LandingPageController controller;
@@ -35,8 +37,9 @@ public class LandingPageView extends StackPane {
         backgroundMap.fitHeightProperty().bind(this.heightProperty());
         backgroundMap.fitWidthProperty().bind(this.widthProperty());
 
-        //Load and set the map image
-        backgroundMap.setImage(mapService.loadRasterImage());
+        //Load and set the map image, decoded for the screen rather than at full resolution
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        backgroundMap.setImage(mapService.loadRasterImage(screen.getWidth(), screen.getHeight()));
 
         //Semi-transparent overlay with responsive padding
         VBox overlay = new VBox(20);
@@ -67,7 +70,17 @@ public class LandingPageView extends StackPane {
         //On button click start the game
         playButton.setOnAction(e -> controller.startGame());
 
-        overlay.getChildren().addAll(welcomeLabel, playButton);
+        //Stats button
+        Button statsButton = new Button("STATS");
+        statsButton.setFont(Font.font("System", FontWeight.BOLD, 18));
+        statsButton.setOnAction(e -> controller.showStats());
+
+        //Explore button, a zoomable map without the game
+        Button exploreButton = new Button("EXPLORE");
+        exploreButton.setFont(Font.font("System", FontWeight.BOLD, 18));
+        exploreButton.setOnAction(e -> controller.showExplore());
+
+        overlay.getChildren().addAll(welcomeLabel, playButton, statsButton, exploreButton);
         this.getChildren().addAll(backgroundMap, overlay);
     }
 }
@@ -0,0 +1,64 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.services.PackedRings;
+import com.example.geofarer.utils.Constants;
+
+/**
+ * Decides which polygon parts are worth drawing: parts entirely outside the visible
+ * lon/lat rectangle, or whose projected bounding box is narrower and shorter than
+ * {@link Constants#MIN_PART_PIXEL_SIZE}, are skipped. Long thin slivers still show as a
+ * line, so a part is kept if either side reaches that size. Counts both outcomes for debug output.
+ */
+final class PartCuller {
+    private double pixelsPerDegreeX;
+    private double pixelsPerDegreeY;
+    private double minLon = -180;
+    private double minLat = -90;
+    private double maxLon = 180;
+    private double maxLat = 90;
+    private int culled;
+    private int drawn;
+
+    /** Starts a pass over the whole world at the given scale. */
+    void begin(double pixelsPerDegreeX, double pixelsPerDegreeY) {
+        begin(pixelsPerDegreeX, pixelsPerDegreeY, -180, -90, 180, 90);
+    }
+
+    /** Starts a pass at the given scale, keeping only parts that overlap the viewport. */
+    void begin(double pixelsPerDegreeX, double pixelsPerDegreeY,
+               double minLon, double minLat, double maxLon, double maxLat) {
+        this.pixelsPerDegreeX = pixelsPerDegreeX;
+        this.pixelsPerDegreeY = pixelsPerDegreeY;
+        this.minLon = minLon;
+        this.minLat = minLat;
+        this.maxLon = maxLon;
+        this.maxLat = maxLat;
+        culled = 0;
+        drawn = 0;
+    }
+
+    boolean accept(PackedRings rings, int ring) {
+        if (rings.ringEnd(ring) - rings.ringStart(ring) < 2
+                || rings.ringMaxLon(ring) < minLon || rings.ringMinLon(ring) > maxLon
+                || rings.ringMaxLat(ring) < minLat || rings.ringMinLat(ring) > maxLat) {
+            culled++;
+            return false;
+        }
+        double w = (rings.ringMaxLon(ring) - rings.ringMinLon(ring)) * pixelsPerDegreeX;
+        double h = (rings.ringMaxLat(ring) - rings.ringMinLat(ring)) * pixelsPerDegreeY;
+        if (Math.max(w, h) < Constants.MIN_PART_PIXEL_SIZE) {
+            culled++;
+            return false;
+        }
+        drawn++;
+        return true;
+    }
+
+    int getCulled() {
+        return culled;
+    }
+
+    int getDrawn() {
+        return drawn;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.services.MapService;
+import com.example.geofarer.services.StatsStore;
+import com.example.geofarer.utils.SceneManager;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Player statistics, read from the aggregates kept by {@link StatsStore}. */
+public class StatsView extends BorderPane {
+    private final TableView<StatsStore.CountryStats> table = new TableView<>();
+    private final List<String> countryNames = new ArrayList<>();
+
+    public StatsView() {
+        initialiseView();
+    }
+
+    private void initialiseView() {
+        // Top bar with back button and title
+        HBox topBar = new HBox(10);
+        topBar.setAlignment(Pos.CENTER_LEFT);
+        topBar.setPadding(new Insets(12, 12, 8, 12));
+        topBar.setMinHeight(60);
+
+        Button backButton = new Button("Back");
+        backButton.setOnAction(e -> SceneManager.switchToScene(new LandingPageView()));
+
+        Label title = new Label("Your Statistics");
+        title.setFont(Font.font("System", 24));
+
+        Region spacerLeft = new Region();
+        HBox.setHgrow(spacerLeft, Priority.ALWAYS);
+        Region spacerRight = new Region();
+        HBox.setHgrow(spacerRight, Priority.ALWAYS);
+
+        topBar.getChildren().addAll(backButton, spacerLeft, title, spacerRight);
+
+        // Summary and per-country table
+        Label summary = new Label();
+        summary.setFont(Font.font(16));
+
+        TableColumn<StatsStore.CountryStats, String> countryColumn = new TableColumn<>("Country");
+        countryColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(countryName(c.getValue().country())));
+        countryColumn.setPrefWidth(220);
+
+        TableColumn<StatsStore.CountryStats, Integer> attemptsColumn = new TableColumn<>("Asked");
+        attemptsColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().attempts()));
+
+        TableColumn<StatsStore.CountryStats, String> accuracyColumn = new TableColumn<>("Accuracy");
+        accuracyColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(
+                String.format("%.0f%%", c.getValue().accuracy() * 100)));
+
+        TableColumn<StatsStore.CountryStats, String> latencyColumn = new TableColumn<>("Mean time");
+        latencyColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(
+                String.format("%.1f s", c.getValue().meanLatencyMillis() / 1000.0)));
+
+        TableColumn<StatsStore.CountryStats, String> scoreColumn = new TableColumn<>("Mean score");
+        scoreColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(
+                String.format("%.0f", c.getValue().meanScore())));
+
+        table.getColumns().addAll(List.of(countryColumn, attemptsColumn, accuracyColumn, latencyColumn, scoreColumn));
+        table.setPlaceholder(new Label("No games played yet"));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        VBox content = new VBox(12, summary, table);
+        content.setPadding(new Insets(12));
+
+        this.setTop(topBar);
+        this.setCenter(content);
+
+        summary.setText("Loading statistics...");
+        loadStats(summary);
+    }
+
+    /** The stored indexes refer to the country load order, so the store is opened once the countries are loaded. */
+    private void loadStats(Label summary) {
+        new MapService().loadShapefileDataAsync().thenAccept(features -> Platform.runLater(() -> {
+            for (MapService.FeatureInfo fi : features) {
+                countryNames.add(fi.name);
+            }
+
+            // Aggregates are kept in memory by the store, so this does not scan the answer log
+            try {
+                StatsStore store = StatsStore.shared(features);
+                summary.setText(String.format("%d answers, %.0f%% correct, %.1f s mean time, %d points in total",
+                        store.getTotalAnswers(), store.getAccuracy() * 100,
+                        store.getMeanLatencyMillis() / 1000.0, store.getTotalScore()));
+                List<StatsStore.CountryStats> rows = new ArrayList<>(store.getCountryStats());
+                rows.sort(Comparator.comparingInt(StatsStore.CountryStats::attempts).reversed());
+                table.getItems().setAll(rows);
+            } catch (IOException e) {
+                summary.setText("Could not open statistics: " + e.getMessage());
+            }
+        }));
+    }
+
+    private String countryName(int index) {
+        return index < countryNames.size() ? countryNames.get(index) : "#" + index;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.geofarer.views;
+
+import com.example.geofarer.services.TileCache;
+import com.example.geofarer.services.TilePyramid;
+import com.example.geofarer.utils.Constants;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+
+/**
+ * Map backdrop drawn from the tile pyramid. Only tiles intersecting the viewport are
+ * cut and decoded, at the coarsest level that still has at least one raster pixel per
+ * screen pixel, so zooming and panning never need the full-resolution raster in memory.
+ * Scroll to zoom around the cursor and drag to pan.
+ */
+public class TiledMapView extends Pane {
+    private static final double MIN_ZOOM = 1.0;
+    private static final double MAX_ZOOM = 32.0;
+
+    private final Canvas canvas = new Canvas();
+    private final TilePyramid pyramid;
+    private final TileCache cache;
+
+    // Viewport: centre in degrees and zoom relative to the whole world fitting the width
+    private double centerLon = 0;
+    private double centerLat = 0;
+    private double zoom = MIN_ZOOM;
+    private double dragX;
+    private double dragY;
+    private boolean redrawPending = false;
+
+    public TiledMapView(TilePyramid pyramid) {
+        this(pyramid, Constants.TILE_CACHE_BYTES);
+    }
+
+    public TiledMapView(TilePyramid pyramid, long cacheBytes) {
+        this.pyramid = pyramid;
+        this.cache = new TileCache(pyramid, cacheBytes);
+
+        canvas.setMouseTransparent(true);
+        getChildren().add(canvas);
+
+        addEventHandler(ScrollEvent.SCROLL, e -> zoomAt(Math.pow(1.0015, e.getDeltaY()), e.getX(), e.getY()));
+        addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> {
+            panBy(e.getX() - dragX, e.getY() - dragY);
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /** Zooms by {@code factor} keeping the map point under (x, y) fixed on screen. */
+    public void zoomAt(double factor, double x, double y) {
+        double ppd = pixelsPerDegree();
+        double lon = centerLon + (x - getWidth() / 2) / ppd;
+        double lat = centerLat - (y - getHeight() / 2) / ppd;
+
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+
+        ppd = pixelsPerDegree();
+        centerLon = lon - (x - getWidth() / 2) / ppd;
+        centerLat = lat + (y - getHeight() / 2) / ppd;
+        clampCenter();
+        requestRedraw();
+    }
+
+    /** Moves the map by a screen-space offset. */
+    public void panBy(double dx, double dy) {
+        double ppd = pixelsPerDegree();
+        centerLon -= dx / ppd;
+        centerLat += dy / ppd;
+        clampCenter();
+        requestRedraw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (canvas.getWidth() != getWidth() || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            clampCenter();
+            redraw();
+        }
+    }
+
+    private double pixelsPerDegree() {
+        return getWidth() / 360.0 * zoom;
+    }
+
+    private void clampCenter() {
+        double ppd = pixelsPerDegree();
+        if (ppd <= 0) return;
+
+        double halfW = getWidth() / 2 / ppd;
+        double halfH = getHeight() / 2 / ppd;
+        centerLon = Math.max(-180 + halfW, Math.min(180 - halfW, centerLon));
+        centerLat = halfH >= 90 ? 0 : Math.max(-90 + halfH, Math.min(90 - halfH, centerLat));
+    }
+
+    private void requestRedraw() {
+        // Coalesce tile-load callbacks and input events into one redraw per pulse
+        if (!redrawPending) {
+            redrawPending = true;
+            Platform.runLater(() -> {
+                redrawPending = false;
+                redraw();
+            });
+        }
+    }
+
+    private void redraw() {
+        double w = getWidth();
+        double h = getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, w, h);
+        if (w <= 0 || h <= 0) return;
+
+        double ppd = pixelsPerDegree();
+        int level = pyramid.levelFor(ppd);
+        double levelPpd = pyramid.levelWidth(level) / 360.0;
+        double scale = ppd / levelPpd; // screen pixels per level pixel
+
+        // Top-left corner of the viewport in level pixel coordinates
+        double originX = (centerLon + 180.0) * levelPpd - w / 2 / scale;
+        double originY = (90.0 - centerLat) * levelPpd - h / 2 / scale;
+
+        int size = TilePyramid.TILE_SIZE;
+        int tx0 = Math.max(0, (int) Math.floor(originX / size));
+        int ty0 = Math.max(0, (int) Math.floor(originY / size));
+        int tx1 = Math.min(pyramid.tilesX(level) - 1, (int) Math.floor((originX + w / scale) / size));
+        int ty1 = Math.min(pyramid.tilesY(level) - 1, (int) Math.floor((originY + h / scale) / size));
+
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                Image tile = cache.getTile(level, tx, ty, this::requestRedraw);
+                if (tile == null) continue;
+
+                gc.drawImage(tile,
+                        (tx * size - originX) * scale, (ty * size - originY) * scale,
+                        tile.getWidth() * scale, tile.getHeight() * scale);
+            }
+        }
+    }
+}
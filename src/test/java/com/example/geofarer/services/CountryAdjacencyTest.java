@@ -0,0 +1,88 @@
+package com.example.geofarer.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/** Checks the adjacency graph against borders that are known to exist or not. */
+class CountryAdjacencyTest {
+    private static List<MapService.FeatureInfo> features;
+    private static CountryAdjacency adjacency;
+
+    @BeforeAll
+    static void buildAdjacency() {
+        MapService mapService = new MapService();
+        features = mapService.loadShapefileData();
+        adjacency = mapService.getAdjacency();
+        assertNotNull(adjacency);
+    }
+
+    @Test
+    void coversEveryCountry() {
+        assertEquals(features.size(), adjacency.countryCount());
+    }
+
+    @Test
+    void knownNeighbours() {
+        assertNeighbours("France", "Spain");
+        assertNeighbours("United States of America", "Canada");
+        assertNeighbours("Lesotho", "South Africa");
+        // French Guiana is part of France in this dataset
+        assertNeighbours("France", "Brazil");
+    }
+
+    @Test
+    void knownNonNeighbours() {
+        assertNotNeighbours("Spain", "Italy");
+        assertNotNeighbours("Canada", "Mexico");
+        assertNotNeighbours("Lesotho", "Brazil");
+        assertNotNeighbours("France", "Canada");
+    }
+
+    @Test
+    void enclavesAndIslands() {
+        // Lesotho lies entirely inside South Africa, and Australia has no land border
+        assertArrayEquals(new int[] {index("South Africa")}, adjacency.neighbours(index("Lesotho")));
+        assertEquals(0, adjacency.degree(index("Australia")));
+    }
+
+    @Test
+    void neighbourRowsAreSymmetricAndSorted() {
+        for (int i = 0; i < adjacency.countryCount(); i++) {
+            int[] row = adjacency.neighbours(i);
+            for (int k = 0; k < row.length; k++) {
+                assertTrue(row[k] != i, features.get(i).name + " borders itself");
+                assertTrue(k == 0 || row[k - 1] < row[k], features.get(i).name + " has an unsorted row");
+                assertTrue(adjacency.areNeighbours(row[k], i),
+                        features.get(row[k]).name + " does not list " + features.get(i).name);
+            }
+        }
+    }
+
+    private static void assertNeighbours(String a, String b) {
+        assertTrue(adjacency.areNeighbours(index(a), index(b)), a + " should border " + b);
+        assertTrue(adjacency.areNeighbours(index(b), index(a)), b + " should border " + a);
+    }
+
+    private static void assertNotNeighbours(String a, String b) {
+        assertFalse(adjacency.areNeighbours(index(a), index(b)), a + " should not border " + b);
+        assertFalse(adjacency.areNeighbours(index(b), index(a)), b + " should not border " + a);
+    }
+
+    private static int index(String name) {
+        for (MapService.FeatureInfo fi : features) {
+            if (fi.name.equals(name)) {
+                return fi.index;
+            }
+        }
+        return fail("No country named " + name);
+    }
+}
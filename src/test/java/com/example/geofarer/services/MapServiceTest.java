@@ -0,0 +1,125 @@
+package com.example.geofarer.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Checks the lookup grid and STRtree against the linear scan they replaced. */
+class MapServiceTest {
+    // A multiple of half the 0.1 degree grid cell, so probes fall on cell corners, cell edges and cell centres
+    private static final double PROBE_STEP = 0.25;
+
+    private static List<MapService.FeatureInfo> features;
+    private final MapService mapService = new MapService();
+
+    @BeforeAll
+    static void loadCountries() {
+        features = new MapService().loadShapefileData();
+    }
+
+    @Test
+    void loadsCountries() {
+        assertFalse(features.isEmpty());
+    }
+
+    @Test
+    void findCountryAtMatchesLinearScan() {
+        List<double[]> probes = new ArrayList<>();
+        for (int row = 0; row <= 180 / PROBE_STEP; row++) {
+            for (int col = 0; col <= 360 / PROBE_STEP; col++) {
+                probes.add(new double[] {-180 + col * PROBE_STEP, -90 + row * PROBE_STEP});
+            }
+        }
+        assertMatchesLinearScan(probes);
+    }
+
+    @Test
+    void bordersMatchLinearScan() {
+        // Every vertex and segment midpoint lies on a border, where no country contains the point
+        List<double[]> probes = new ArrayList<>();
+        for (MapService.FeatureInfo fi : features) {
+            Coordinate[] coords = fi.geometry().getCoordinates();
+            for (int i = 0; i < coords.length; i++) {
+                probes.add(new double[] {coords[i].x, coords[i].y});
+                if (i + 1 < coords.length) {
+                    probes.add(new double[] {(coords[i].x + coords[i + 1].x) / 2, (coords[i].y + coords[i + 1].y) / 2});
+                }
+            }
+        }
+        assertMatchesLinearScan(probes);
+    }
+
+    @Test
+    void borderOnCellEdgeMatchesLinearScan() {
+        // The US-Canada border follows the 49th parallel, which is also a row of grid cell edges
+        List<double[]> probes = new ArrayList<>();
+        for (int i = 0; i <= 2800; i++) {
+            double lon = -123.0 + i * 0.01;
+            probes.add(new double[] {lon, 49.0});
+            probes.add(new double[] {lon, Math.nextUp(49.0)});
+            probes.add(new double[] {lon, Math.nextDown(49.0)});
+        }
+        assertMatchesLinearScan(probes);
+    }
+
+    @Test
+    void previousCountryDoesNotChangeResult() {
+        // Hover passes the last country back in; whichever it was, the earliest country in load order must win
+        List<String> mismatches = new ArrayList<>();
+        int probes = 0;
+        for (MapService.FeatureInfo fi : features) {
+            for (Coordinate c : fi.geometry().getCoordinates()) {
+                for (double[] probe : new double[][] {{c.x, c.y}, {c.x + 0.001, c.y + 0.001}, {c.x - 0.001, c.y - 0.001}}) {
+                    MapService.FeatureInfo expected = linearScan(probe[0], probe[1]);
+                    for (MapService.FeatureInfo previous : new MapService.FeatureInfo[] {fi, expected}) {
+                        MapService.FeatureInfo actual = mapService.findCountryAt(probe[0], probe[1], previous);
+                        if (expected != actual) {
+                            mismatches.add(probe[0] + ", " + probe[1] + " after " + name(previous)
+                                    + ": expected " + name(expected) + ", got " + name(actual));
+                        }
+                        probes++;
+                    }
+                }
+            }
+        }
+        assertTrue(mismatches.isEmpty(), mismatches.size() + " of " + probes + " probes differ, e.g. "
+                + mismatches.subList(0, Math.min(10, mismatches.size())));
+    }
+
+    private void assertMatchesLinearScan(List<double[]> probes) {
+        List<String> mismatches = new ArrayList<>();
+        for (double[] probe : probes) {
+            MapService.FeatureInfo expected = linearScan(probe[0], probe[1]);
+            MapService.FeatureInfo actual = mapService.findCountryAt(probe[0], probe[1]);
+            if (expected != actual) {
+                mismatches.add(probe[0] + ", " + probe[1] + ": expected " + name(expected) + ", got " + name(actual));
+            }
+        }
+        assertTrue(mismatches.isEmpty(), mismatches.size() + " of " + probes.size() + " probes differ, e.g. "
+                + mismatches.subList(0, Math.min(10, mismatches.size())));
+    }
+
+    /** The original lookup: first country in load order whose geometry contains the point. */
+    private static MapService.FeatureInfo linearScan(double lon, double lat) {
+        Coordinate point = new Coordinate(lon, lat);
+        for (MapService.FeatureInfo fi : features) {
+            if (fi.envelope().contains(lon, lat)
+                    && SimplePointInAreaLocator.locate(point, fi.geometry()) == Location.INTERIOR) {
+                return fi;
+            }
+        }
+        return null;
+    }
+
+    private static String name(MapService.FeatureInfo fi) {
+        return fi != null ? fi.name : "none";
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.Constants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares the indexed nearest-boundary search with a scan over every boundary segment.
+ * Russia and Fiji cross the antimeridian; the US and Canada share the long 49th parallel
+ * border, whose segments bulge poleward off their lat/lon boxes.
+ */
+class ScoringServiceTest {
+    // 1 m: both sides measure the same segments, only the arithmetic differs
+    private static final double TOLERANCE_KM = 0.001;
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private static List<MapService.FeatureInfo> features;
+    private final ScoringService scoring = new ScoringService();
+
+    @BeforeAll
+    static void loadCountries() {
+        features = new MapService().loadShapefileData();
+    }
+
+    @Test
+    void matchesBruteForceForRussia() {
+        assertMatchesBruteForce("Russia", probes(-180, 180, 30, 85, 2.5));
+    }
+
+    @Test
+    void matchesBruteForceForFiji() {
+        List<double[]> probes = probes(170, 190, -25, -10, 1);
+        probes.add(new double[] {179.99, -16.5});
+        probes.add(new double[] {-179.99, -16.5});
+        assertMatchesBruteForce("Fiji", probes);
+    }
+
+    @Test
+    void matchesBruteForceForUnitedStates() {
+        List<double[]> probes = probes(-130, -60, 40, 60, 2.5);
+        for (double lon = -123; lon <= -95; lon += 0.5) {
+            probes.add(new double[] {lon, 49.05});
+            probes.add(new double[] {lon, 48.95});
+        }
+        assertMatchesBruteForce("United States of America", probes);
+    }
+
+    @Test
+    void matchesBruteForceForCanada() {
+        List<double[]> probes = probes(-140, -50, 35, 85, 2.5);
+        for (double lon = -123; lon <= -95; lon += 0.5) {
+            probes.add(new double[] {lon, 48.9});
+        }
+        assertMatchesBruteForce("Canada", probes);
+    }
+
+    @Test
+    void matchesBruteForceFromFarAway() {
+        List<double[]> probes = probes(-180, 180, -85, 85, 10);
+        for (String name : List.of("Russia", "Fiji", "Canada")) {
+            assertMatchesBruteForce(name, probes);
+        }
+    }
+
+    @Test
+    void scoreFallsOffLinearly() {
+        assertEquals(Constants.POINTS_PER_CORRECT_ANSWER, ScoringService.scoreForDistance(0));
+        assertEquals(0, ScoringService.scoreForDistance(Constants.SCORING_ZERO_POINTS_KM));
+        assertEquals(0, ScoringService.scoreForDistance(20000));
+    }
+
+    private void assertMatchesBruteForce(String name, List<double[]> probes) {
+        MapService.FeatureInfo target = country(name);
+        for (double[] probe : probes) {
+            double lon = wrap(probe[0]);
+            double lat = probe[1];
+            double expected = bruteForceKm(target.geometry(), lon, lat);
+            double actual = scoring.distanceKm(target, lon, lat);
+            assertEquals(expected, actual, TOLERANCE_KM, name + " at " + lon + ", " + lat);
+        }
+    }
+
+    private static MapService.FeatureInfo country(String name) {
+        MapService.FeatureInfo found = null;
+        for (MapService.FeatureInfo fi : features) {
+            if (fi.name.equals(name)) {
+                found = fi;
+            }
+        }
+        assertNotNull(found, "Missing country " + name);
+        return found;
+    }
+
+    private static List<double[]> probes(double minLon, double maxLon, double minLat, double maxLat, double step) {
+        List<double[]> probes = new ArrayList<>();
+        for (double lon = minLon; lon <= maxLon; lon += step) {
+            for (double lat = minLat; lat <= maxLat; lat += step) {
+                probes.add(new double[] {lon, lat});
+            }
+        }
+        return probes;
+    }
+
+    private static double wrap(double lon) {
+        return lon > 180 ? lon - 360 : lon;
+    }
+
+    /** Distance to the nearest of all boundary segments, or 0 inside the country. */
+    private static double bruteForceKm(Geometry geometry, double lon, double lat) {
+        if (geometry.contains(GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat)))) {
+            return 0;
+        }
+        double[] p = unit(lon, lat);
+        double best = Double.POSITIVE_INFINITY;
+        for (int g = 0; g < geometry.getNumGeometries(); g++) {
+            Polygon polygon = (Polygon) geometry.getGeometryN(g);
+            best = Math.min(best, ringAngle(polygon.getExteriorRing(), p));
+            for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+                best = Math.min(best, ringAngle(polygon.getInteriorRingN(h), p));
+            }
+        }
+        return best * ScoringService.EARTH_RADIUS_KM;
+    }
+
+    private static double ringAngle(LineString ring, double[] p) {
+        CoordinateSequence seq = ring.getCoordinateSequence();
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i + 1 < seq.size(); i++) {
+            double[] a = unit(seq.getX(i), seq.getY(i));
+            double[] b = unit(seq.getX(i + 1), seq.getY(i + 1));
+            best = Math.min(best, arcAngle(p, a, b));
+        }
+        return best;
+    }
+
+    /**
+     * Angle from p to the arc a-b: the foot of the perpendicular if it lies on the arc,
+     * which is when it splits the arc into two parts adding up to the whole, else the nearer end.
+     */
+    private static double arcAngle(double[] p, double[] a, double[] b) {
+        double best = Math.min(angle(p, a), angle(p, b));
+        double[] n = cross(a, b);
+        double nLen = Math.sqrt(dot(n, n));
+        if (nLen < 1e-15) {
+            return best;
+        }
+        double pn = dot(p, n) / nLen;
+        double[] foot = {p[0] - pn * n[0] / nLen, p[1] - pn * n[1] / nLen, p[2] - pn * n[2] / nLen};
+        if (dot(foot, foot) > 1e-24 && angle(a, foot) + angle(foot, b) - angle(a, b) < 1e-9) {
+            best = Math.min(best, angle(p, foot));
+        }
+        return best;
+    }
+
+    private static double[] unit(double lon, double lat) {
+        double lambda = Math.toRadians(lon);
+        double phi = Math.toRadians(lat);
+        return new double[] {Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static double angle(double[] u, double[] v) {
+        return Math.atan2(Math.sqrt(dot(cross(u, v), cross(u, v))), dot(u, v));
+    }
+
+    private static double[] cross(double[] u, double[] v) {
+        return new double[] {u[1] * v[2] - u[2] * v[1], u[2] * v[0] - u[0] * v[2], u[0] * v[1] - u[1] * v[0]};
+    }
+
+    private static double dot(double[] u, double[] v) {
+        return u[0] * v[0] + u[1] * v[1] + u[2] * v[2];
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.geofarer.services;
+
+import com.example.geofarer.utils.Constants;
+import org.geotools.data.FileDataStore;
+import org.geotools.data.FileDataStoreFinder;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.opengis.feature.simple.SimpleFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The memory-mapped reader must produce exactly what GeoTools reads from ne_50m_admin_0_countries. */
+class ShapefileReaderTest {
+    private final File shpFile = new File(Constants.SHAPEFILE_PATH);
+
+    @Test
+    void recordsMatchGeoTools() throws IOException {
+        ShapefileReader reader = ShapefileReader.open(shpFile);
+        FileDataStore store = FileDataStoreFinder.getDataStore(shpFile);
+        assertNotNull(store, "GeoTools could not open " + shpFile);
+        try (SimpleFeatureIterator it = store.getFeatureSource().getFeatures().features()) {
+            int record = 0;
+            while (it.hasNext()) {
+                SimpleFeature feature = it.next();
+                Geometry expected = (Geometry) feature.getDefaultGeometry();
+                Geometry actual = reader.readGeometry(record);
+                assertNotNull(actual, "record " + record);
+                assertTrue(expected.equalsExact(actual), "geometry of record " + record + " (" + feature.getAttribute("NAME") + ")");
+                assertEquals(String.valueOf(feature.getAttribute("NAME")).trim(), reader.readAttribute(record, "NAME"),
+                        "name of record " + record);
+                record++;
+            }
+            assertEquals(record, reader.getRecordCount());
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    void loadedCountriesMatchGeoToolsPath() throws IOException {
+        MapService mapService = new MapService();
+        List<MapService.FeatureInfo> geoTools = mapService.readShapefile(shpFile);
+        List<MapService.FeatureInfo> mapped = mapService.readShapefileMapped(shpFile);
+
+        assertEquals(geoTools.size(), mapped.size());
+        for (int i = 0; i < geoTools.size(); i++) {
+            MapService.FeatureInfo expected = geoTools.get(i);
+            MapService.FeatureInfo actual = mapped.get(i);
+            assertEquals(expected.name, actual.name, "name of country " + i);
+            assertEquals(expected.index, actual.index);
+            assertTrue(expected.geometry().equalsExact(actual.geometry()), "geometry of " + expected.name);
+        }
+    }
+}
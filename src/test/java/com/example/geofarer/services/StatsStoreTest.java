@@ -0,0 +1,80 @@
+package com.example.geofarer.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Answer log and snapshot recovery, and stats following countries when the load order changes. */
+class StatsStoreTest {
+    private static final List<String> COUNTRIES = List.of("France", "Spain", "Chile");
+
+    @TempDir
+    File dir;
+
+    private StatsStore open(List<String> countries) throws IOException {
+        return StatsStore.open(new File(dir, "answers.log"), new File(dir, "answers.snapshot"), countries);
+    }
+
+    @Test
+    void replaysLogWrittenWithoutClosing() throws IOException {
+        StatsStore store = open(COUNTRIES);
+        store.record(1, 0, 0, 1000, 90);
+        store.record(2, 1, 2, 2000, 10);
+
+        StatsStore reopened = open(COUNTRIES);
+        assertEquals(2, reopened.getTotalAnswers());
+        assertEquals(100, reopened.getTotalScore());
+        assertEquals(0.5, reopened.getAccuracy());
+    }
+
+    @Test
+    void remapsStatsByNameWhenCountryOrderChanges() throws IOException {
+        StatsStore store = open(COUNTRIES);
+        store.record(1, 0, 0, 1000, 90); // France, correct
+        store.record(2, 2, 1, 3000, 20); // Chile, clicked Spain
+        store.record(3, 2, 2, 1000, 80); // Chile, correct
+        store.close();
+
+        // Chile now loads first, Spain has gone and Peru is new
+        StatsStore reopened = open(List.of("Chile", "Peru", "France"));
+        assertEquals(3, reopened.getTotalAnswers());
+        List<StatsStore.CountryStats> stats = reopened.getCountryStats();
+        assertEquals(2, stats.size());
+        assertEquals(new StatsStore.CountryStats(0, 2, 1, 4000, 100), stats.get(0));
+        assertEquals(new StatsStore.CountryStats(2, 1, 1, 1000, 90), stats.get(1));
+
+        // The old log was folded in, so opening again under the new order does not count it twice
+        reopened.record(4, 1, 1, 500, 100); // Peru
+        StatsStore again = open(List.of("Chile", "Peru", "France"));
+        assertEquals(4, again.getTotalAnswers());
+        assertEquals(new StatsStore.CountryStats(1, 1, 1, 500, 100), again.getCountryStats().get(1));
+    }
+
+    @Test
+    void persistsOffsetResetAfterLogWasEmptied() throws IOException {
+        StatsStore store = open(COUNTRIES);
+        for (int i = 0; i < 5; i++) {
+            store.record(i, 0, 0, 1000, 50);
+        }
+        store.close();
+
+        // As if compaction truncated the log but crashed before rewriting the snapshot
+        try (RandomAccessFile log = new RandomAccessFile(new File(dir, "answers.log"), "rw")) {
+            log.setLength(0);
+        }
+
+        // Appending past the old offset must not hide these records from the next open
+        StatsStore reopened = open(COUNTRIES);
+        for (int i = 0; i < 10; i++) {
+            reopened.record(i, 1, 1, 1000, 50);
+        }
+        StatsStore again = open(COUNTRIES);
+        assertEquals(15, again.getTotalAnswers());
+    }
+}